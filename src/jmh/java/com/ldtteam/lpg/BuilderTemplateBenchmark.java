@@ -0,0 +1,57 @@
+package com.ldtteam.lpg;
+
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import com.github.javaparser.ast.type.Type;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares building the fragments of one typed builder method from code strings against instantiating the
+ * precompiled templates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuilderTemplateBenchmark
+{
+    private static final String CONTEXT_NAME  = "GetLightValueWithStateAndWorldAndPosContext";
+    private static final String RETURN_TYPE   = "Integer";
+    private static final String PIPELINE_NAME = "getLightValueWithStateAndWorldAndPos";
+
+    @Benchmark
+    public void parseStrings(final Blackhole blackhole)
+    {
+        final String context = "TypedPipelineElementContext<" + CONTEXT_NAME + ", " + RETURN_TYPE + ", O, I>";
+        blackhole.consume(Parsers.parse(p -> p.parseClassOrInterfaceType("List<Function<" + context + ", " + RETURN_TYPE + ">>")));
+        blackhole.consume(Parsers.parse(p -> p.parseExpression("new ArrayList<>()")));
+        blackhole.consume(Parsers.parse(p -> p.parseClassOrInterfaceType("Function<" + context + ", " + RETURN_TYPE + ">")));
+        blackhole.consume(Parsers.parse(p -> p.parseBlock("{ \n"
+                                                            + "   this." + PIPELINE_NAME + "Pipeline.addAll(Arrays.asList(components));\n"
+                                                            + "   return (C) this;\n"
+                                                            + "}")));
+    }
+
+    @Benchmark
+    public void instantiateTemplates(final Blackhole blackhole)
+    {
+        final Type returnType = AstTemplate.typeArgument(RETURN_TYPE);
+        final ClassOrInterfaceType context = Generator.TYPED_CONTEXT_TYPE.instantiate(new ClassOrInterfaceType(null, CONTEXT_NAME), returnType);
+        blackhole.consume(Generator.FUNCTION_PIPELINE_TYPE.instantiate(context, returnType));
+        blackhole.consume(Generator.PIPELINE_INITIALIZER.instantiate());
+        blackhole.consume(Generator.FUNCTION_COMPONENT_TYPE.instantiate(context, returnType));
+        blackhole.consume(Generator.PIPELINE_REGISTRATION_BODY.instantiate(PIPELINE_NAME));
+    }
+}
@@ -0,0 +1,73 @@
+package com.ldtteam.lpg;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The synthetic sources and mappings the benchmarks run on, bundled under fixtures/ so they run without the decompiled
+ * sources.
+ * <p>
+ * Block is a decompiled block sized class with many overload groups, Item a small class.
+ */
+final class Fixtures
+{
+    static final String MAPPINGS = "fixtures/mappings.json";
+
+    private Fixtures()
+    {
+    }
+
+    /**
+     * @param name the name of a fixture source, Block or Item.
+     */
+    static String source(final String name) throws IOException
+    {
+        return read("fixtures/" + name + ".java");
+    }
+
+    /**
+     * Loads a mapping, from the given file if it exists and from the bundled resource of that name otherwise.
+     */
+    static Mapping mapping(final String file) throws IOException
+    {
+        final Path path = Paths.get(file);
+        if (Files.exists(path))
+        {
+            return new Mapping(MappingStore.load(Collections.singletonList(path)));
+        }
+
+        final Map<String, String> mappings = new GsonBuilder().create().fromJson(new StringReader(read(file)), new TypeToken<Map<String, String>>() {}.getType());
+        return new Mapping(mappings);
+    }
+
+    private static String read(final String resource) throws IOException
+    {
+        try (InputStream stream = Fixtures.class.getClassLoader().getResourceAsStream(resource))
+        {
+            if (stream == null)
+            {
+                throw new IOException("Missing fixture: " + resource);
+            }
+
+            final ByteArrayOutputStream content = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            for (int read = stream.read(buffer); read >= 0; read = stream.read(buffer))
+            {
+                content.write(buffer, 0, read);
+            }
+
+            return new String(content.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.ldtteam.lpg;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The generation steps of one source class, written into memory so the disk stays out of the numbers.
+ * <p>
+ * Generating moves nodes of the source into the generated units, so the interface and builder benchmarks work on a fresh
+ * copy of the parsed source for every invocation. The end to end benchmark parses and generates all outputs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GenerationBenchmark
+{
+    private static final List<String> ALL_METHODS = Collections.singletonList("*");
+
+    @Param({"Block", "Item"})
+    private String fixture;
+
+    @Param({Fixtures.MAPPINGS})
+    private String mappingFile;
+
+    private final InMemoryOutputSink outputSink = new InMemoryOutputSink();
+
+    private Generator                   generator;
+    private String                      sourceText;
+    private Path                        inputFile;
+    private CompilationUnit             parsedSource;
+    private CompilationUnit             source;
+    private ClassOrInterfaceDeclaration sourceClass;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        sourceText = Fixtures.source(fixture);
+        inputFile = Paths.get(fixture + ".java");
+        parsedSource = Parsers.parse(p -> p.parse(sourceText));
+
+        final GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setMapping(Fixtures.mapping(mappingFile));
+        configuration.setOutputSink(outputSink);
+        generator = new Generator(configuration);
+    }
+
+    @Setup(Level.Invocation)
+    public void copySource()
+    {
+        source = parsedSource.clone();
+        sourceClass = source.getType(0).asClassOrInterfaceDeclaration();
+        outputSink.clear();
+    }
+
+    @Benchmark
+    public Path generateInterface() throws IOException
+    {
+        return generator.generateInterface(inputFile, source, sourceClass, ALL_METHODS);
+    }
+
+    @Benchmark
+    public List<Path> generateLogicBuilder() throws IOException
+    {
+        return generator.generateLogicBuilder(inputFile, source, sourceClass, ALL_METHODS);
+    }
+
+    @Benchmark
+    public int endToEnd() throws IOException
+    {
+        generator.generate(inputFile, Parsers.parse(p -> p.parse(sourceText)));
+        return outputSink.getFiles().size();
+    }
+}
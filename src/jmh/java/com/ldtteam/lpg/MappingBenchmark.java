@@ -0,0 +1,53 @@
+package com.ldtteam.lpg;
+
+import com.github.javaparser.ast.type.Type;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a single {@link Mapping#processTypeForMapping(Type)} lookup, against the bundled mappings or the given mapping
+ * file.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark
+{
+    @Param({Fixtures.MAPPINGS})
+    private String mappingFile;
+
+    @Param({"String", "BlockPos", "List<Block>", "NonNullList<ItemStack>", "Map<EnumFacing, List<? extends TileEntity>>"})
+    private String type;
+
+    private Mapping mapping;
+    private Type    parsedType;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        mapping = Fixtures.mapping(mappingFile);
+        parsedType = Parsers.parse(p -> p.parseClassOrInterfaceType(type));
+    }
+
+    @Benchmark
+    public Type lookup()
+    {
+        return mapping.processTypeForMapping(parsedType);
+    }
+}
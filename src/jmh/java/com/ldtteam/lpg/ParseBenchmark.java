@@ -0,0 +1,54 @@
+package com.ldtteam.lpg;
+
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ast.CompilationUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing a decompiled source with the configured parser, in full and with the method bodies stripped.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark
+{
+    @Param({"Block", "Item"})
+    private String fixture;
+
+    private String source;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        source = Fixtures.source(fixture);
+    }
+
+    @Benchmark
+    public ParseResult<CompilationUnit> parse()
+    {
+        return Parsers.get().parse(source);
+    }
+
+    @Benchmark
+    public ParseResult<CompilationUnit> parseSignaturesOnly()
+    {
+        return Parsers.get().parse(SignatureOnlySource.strip(source));
+    }
+}
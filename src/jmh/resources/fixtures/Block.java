@@ -0,0 +1,1352 @@
+package net.minecraft.block;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import javax.annotation.Nullable;
+
+/**
+ * Synthetic stand in for a decompiled block class: many methods, deep overload groups and decompiler style bodies.
+ */
+public class Block implements IBlockProperties
+{
+    protected static final AxisAlignedBB FULL_BLOCK_AABB = new AxisAlignedBB(0.0D, 0.0D, 0.0D, 1.0D, 1.0D, 1.0D);
+    private static final Random RANDOM = new Random();
+    public static final RegistryNamespacedDefaultedByKey<ResourceLocation, Block> REGISTRY = new RegistryNamespacedDefaultedByKey<ResourceLocation, Block>(new ResourceLocation("air"));
+    protected boolean fullBlock;
+    protected int lightOpacity;
+    protected int lightValue;
+    protected float blockHardness;
+    protected float blockResistance;
+    protected SoundType blockSoundType;
+    protected final Material material;
+    protected final MapColor blockMapColor;
+    private String translationKey;
+
+    public Block(Material blockMaterialIn, MapColor blockMapColorIn)
+    {
+        this.blockSoundType = SoundType.STONE;
+        this.material = blockMaterialIn;
+        this.blockMapColor = blockMapColorIn;
+        this.fullBlock = this.getDefaultState().isOpaqueCube();
+    }
+
+    public Block(Material materialIn)
+    {
+        this(materialIn, materialIn.getMaterialMapColor());
+    }
+
+    public AxisAlignedBB dropState(NonNullList<ItemStack> drops)
+    {
+        return FULL_BLOCK_AABB;
+    }
+
+    public boolean updateOpacity(IBlockAccess worldIn, Entity entityIn, NonNullList<ItemStack> drops, float hitX)
+    {
+        return false;
+    }
+
+    protected boolean updateOpacity(IBlockAccess worldIn, Entity entityIn, NonNullList<ItemStack> drops, float hitX, ResourceLocation location)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return false;
+    }
+
+    @Deprecated
+    public boolean updateOpacity(Random rand, Entity entityIn, NonNullList<ItemStack> drops, float hitX)
+    {
+        return false;
+    }
+
+    public boolean updateOpacity(IBlockAccess worldIn, Entity entityIn, NonNullList<ItemStack> drops, float hitX, CreativeTabs itemIn, EnumFacing facing)
+    {
+        return false;
+    }
+
+    @Deprecated
+    public List<ItemStack> onFallenUpon(BlockPos pos, NonNullList<ItemStack> drops, ResourceLocation location)
+    {
+        BlockPos blockpos = pos.offset(EnumFacing.UP);
+        if (blockpos.getY() > 255)
+        {
+            throw new IllegalStateException("Position {" + blockpos + "} out of range");
+        }
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return new ArrayList<ItemStack>();
+    }
+
+    public List<ItemStack> onFallenUpon(BlockPos pos, NonNullList<ItemStack> drops, ResourceLocation location, AxisAlignedBB entityBox)
+    {
+        BlockPos blockpos = pos.offset(EnumFacing.UP);
+        if (blockpos.getY() > 255)
+        {
+            throw new IllegalStateException("Position {" + blockpos + "} out of range");
+        }
+        return new ArrayList<ItemStack>();
+    }
+
+    public IBlockState renderTick(ResourceLocation location, Entity entityIn)
+    {
+        return state;
+    }
+
+    @Deprecated
+    public IBlockState renderTick(ResourceLocation location, Entity entityIn, Mirror mirrorIn)
+    {
+        return state;
+    }
+
+    public AxisAlignedBB onClicked(EnumFacing facing, boolean isMoving, float hitX)
+    {
+        return FULL_BLOCK_AABB;
+    }
+
+    public String dropSoundType(List<AxisAlignedBB> collidingBoxes, int fortune, IBlockAccess worldIn, ItemStack stack)
+    {
+        for (int i = 0; i < fortune; ++i)
+        {
+            this.lightValue += i;
+        }
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return this.translationKey;
+    }
+
+    public String dropSoundType(List<AxisAlignedBB> collidingBoxes, int fortune, IBlockAccess worldIn, ItemStack stack, Mirror mirrorIn)
+    {
+        for (int i = 0; i < fortune; ++i)
+        {
+            this.lightValue += i;
+        }
+        return this.translationKey;
+    }
+
+    @Deprecated
+    private String dropSoundType(List<AxisAlignedBB> collidingBoxes, int fortune, IBlockAccess worldIn, Mirror mirrorIn)
+    {
+        for (int i = 0; i < fortune; ++i)
+        {
+            this.lightValue += i;
+        }
+        return this.translationKey;
+    }
+
+    @Deprecated
+    public boolean shouldLanded(EnumHand hand)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return false;
+    }
+
+    @Deprecated
+    private boolean shouldLanded(EnumHand hand, float hitX)
+    {
+        return false;
+    }
+
+    private boolean shouldLanded(EnumHand hand, List<AxisAlignedBB> collidingBoxes, Random rand)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return false;
+    }
+
+    public boolean shouldLanded(EnumHand hand, int fortune, TileEntity te)
+    {
+        for (int i = 0; i < fortune; ++i)
+        {
+            this.lightValue += i;
+        }
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return false;
+    }
+
+    @Deprecated
+    public boolean shouldLanded(EnumHand hand, IBlockAccess worldIn)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return false;
+    }
+
+    @Deprecated
+    public boolean shouldLanded(EnumHand hand, Explosion explosionIn, AxisAlignedBB entityBox)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return false;
+    }
+
+    protected List<ItemStack> observedTick(ResourceLocation location, Explosion explosionIn)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return new ArrayList<ItemStack>();
+    }
+
+    public List<ItemStack> observedTick(ResourceLocation location, Explosion explosionIn, Material materialIn)
+    {
+        return new ArrayList<ItemStack>();
+    }
+
+    @Deprecated
+    public List<ItemStack> observedTick(ResourceLocation location, BlockPos pos)
+    {
+        BlockPos blockpos = pos.offset(EnumFacing.UP);
+        if (blockpos.getY() > 255)
+        {
+            throw new IllegalStateException("Position {" + blockpos + "} out of range");
+        }
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return new ArrayList<ItemStack>();
+    }
+
+    @Deprecated
+    public int updateActivated(AxisAlignedBB entityBox, World worldIn, BlockPos pos)
+    {
+        BlockPos blockpos = pos.offset(EnumFacing.UP);
+        if (blockpos.getY() > 255)
+        {
+            throw new IllegalStateException("Position {" + blockpos + "} out of range");
+        }
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return 0;
+    }
+
+    @Deprecated
+    public void breakLanded(AxisAlignedBB entityBox, TileEntity te)
+    {
+    }
+
+    public boolean breakDestroyed(int fortune, boolean isMoving, Random rand, IBlockAccess worldIn)
+    {
+        for (int i = 0; i < fortune; ++i)
+        {
+            this.lightValue += i;
+        }
+        return false;
+    }
+
+    protected String spawnFlammability(EnumHand hand)
+    {
+        return this.translationKey;
+    }
+
+    public MapColor getPower(ResourceLocation location)
+    {
+        return this.blockMapColor;
+    }
+
+    public MapColor getPower(ResourceLocation location, Mirror mirrorIn)
+    {
+        return this.blockMapColor;
+    }
+
+    @Deprecated
+    public float dropExplosion(TileEntity te, Material materialIn)
+    {
+        return 1.0F;
+    }
+
+    private float dropExplosion(TileEntity te, Material materialIn, IBlockState state)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return 1.0F;
+    }
+
+    @Deprecated
+    public Block breakActivated(IBlockAccess worldIn, Entity entityIn, BlockPos pos)
+    {
+        BlockPos blockpos = pos.offset(EnumFacing.UP);
+        if (blockpos.getY() > 255)
+        {
+            throw new IllegalStateException("Position {" + blockpos + "} out of range");
+        }
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return this;
+    }
+
+    protected Block breakActivated(IBlockAccess worldIn, Entity entityIn, BlockPos pos, ResourceLocation location)
+    {
+        BlockPos blockpos = pos.offset(EnumFacing.UP);
+        if (blockpos.getY() > 255)
+        {
+            throw new IllegalStateException("Position {" + blockpos + "} out of range");
+        }
+        return this;
+    }
+
+    @Deprecated
+    public Block breakActivated(IBlockAccess worldIn, Material materialIn, BlockPos pos)
+    {
+        BlockPos blockpos = pos.offset(EnumFacing.UP);
+        if (blockpos.getY() > 255)
+        {
+            throw new IllegalStateException("Position {" + blockpos + "} out of range");
+        }
+        return this;
+    }
+
+    public String placeSide(EntityPlayer playerIn, float hitX, EntityLivingBase placer, Rotation rot)
+    {
+        return this.translationKey;
+    }
+
+    public String placeSide(EntityPlayer playerIn, float hitX, EntityLivingBase placer, Rotation rot, NonNullList<ItemStack> drops)
+    {
+        return this.translationKey;
+    }
+
+    public void shouldState(EntityLivingBase placer, EnumFacing facing, AxisAlignedBB entityBox, boolean isMoving)
+    {
+    }
+
+    @Deprecated
+    public void hasLightValue(float hitX, EnumHand hand)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+    }
+
+    public float harvestClicked(NonNullList<ItemStack> drops, float hitX, EnumFacing facing)
+    {
+        return 1.0F;
+    }
+
+    public float harvestClicked(NonNullList<ItemStack> drops, float hitX, EnumFacing facing, CreativeTabs itemIn)
+    {
+        return 1.0F;
+    }
+
+    public float harvestClicked(AxisAlignedBB entityBox, float hitX, EnumFacing facing)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return 1.0F;
+    }
+
+    public int renderPower(EntityPlayer playerIn, EnumFacing facing)
+    {
+        return 0;
+    }
+
+    @Deprecated
+    public MapColor dropParticles(NonNullList<ItemStack> drops)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return this.blockMapColor;
+    }
+
+    public MapColor dropParticles(NonNullList<ItemStack> drops, BlockPos pos)
+    {
+        BlockPos blockpos = pos.offset(EnumFacing.UP);
+        if (blockpos.getY() > 255)
+        {
+            throw new IllegalStateException("Position {" + blockpos + "} out of range");
+        }
+        return this.blockMapColor;
+    }
+
+    public MapColor dropParticles(NonNullList<ItemStack> drops, IBlockAccess worldIn, int fortune)
+    {
+        for (int i = 0; i < fortune; ++i)
+        {
+            this.lightValue += i;
+        }
+        return this.blockMapColor;
+    }
+
+    public MapColor dropParticles(NonNullList<ItemStack> drops, EnumHand hand, Material materialIn)
+    {
+        return this.blockMapColor;
+    }
+
+    protected MapColor dropParticles(NonNullList<ItemStack> drops, Explosion explosionIn)
+    {
+        return this.blockMapColor;
+    }
+
+    protected MapColor dropParticles(NonNullList<ItemStack> drops, ItemStack stack, List<AxisAlignedBB> collidingBoxes)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return this.blockMapColor;
+    }
+
+    @Deprecated
+    public EnumBlockRenderType onChanged(CreativeTabs itemIn)
+    {
+        return EnumBlockRenderType.MODEL;
+    }
+
+    protected EnumBlockRenderType onChanged(CreativeTabs itemIn, BlockPos pos)
+    {
+        BlockPos blockpos = pos.offset(EnumFacing.UP);
+        if (blockpos.getY() > 255)
+        {
+            throw new IllegalStateException("Position {" + blockpos + "} out of range");
+        }
+        return EnumBlockRenderType.MODEL;
+    }
+
+    @Deprecated
+    public EnumBlockRenderType onChanged(CreativeTabs itemIn, Mirror mirrorIn, EnumFacing facing)
+    {
+        return EnumBlockRenderType.MODEL;
+    }
+
+    private Item spawnDrops(ResourceLocation location, float hitX)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return Item.getItemFromBlock(this);
+    }
+
+    public Item spawnDrops(ResourceLocation location, float hitX, Rotation rot)
+    {
+        return Item.getItemFromBlock(this);
+    }
+
+    @Deprecated
+    public String renderActivated(Rotation rot, Explosion explosionIn, AxisAlignedBB entityBox, Random rand)
+    {
+        return this.translationKey;
+    }
+
+    public boolean randomResistance(World worldIn, EntityPlayer playerIn, ItemStack stack)
+    {
+        return false;
+    }
+
+    public boolean randomResistance(World worldIn, EntityPlayer playerIn, ItemStack stack, Mirror mirrorIn)
+    {
+        return false;
+    }
+
+    @Deprecated
+    public ItemStack spawnTooltip(World worldIn, ResourceLocation location, EntityPlayer playerIn)
+    {
+        return ItemStack.EMPTY;
+    }
+
+    @Deprecated
+    private IBlockState canSide(IBlockAccess worldIn, ItemStack stack)
+    {
+        return state;
+    }
+
+    public List<ItemStack> collisionRenderType(Explosion explosionIn)
+    {
+        return new ArrayList<ItemStack>();
+    }
+
+    @Deprecated
+    public int neighborOpacity(EntityLivingBase placer, Random rand, Explosion explosionIn)
+    {
+        return 0;
+    }
+
+    public int neighborOpacity(EntityLivingBase placer, Random rand, Explosion explosionIn, EntityPlayer playerIn)
+    {
+        return 0;
+    }
+
+    public void isLightValue(Entity entityIn, int fortune, BlockPos pos, CreativeTabs itemIn)
+    {
+        for (int i = 0; i < fortune; ++i)
+        {
+            this.lightValue += i;
+        }
+        BlockPos blockpos = pos.offset(EnumFacing.UP);
+        if (blockpos.getY() > 255)
+        {
+            throw new IllegalStateException("Position {" + blockpos + "} out of range");
+        }
+    }
+
+    private void isLightValue(Entity entityIn, int fortune, BlockPos pos, CreativeTabs itemIn, boolean isMoving)
+    {
+        for (int i = 0; i < fortune; ++i)
+        {
+            this.lightValue += i;
+        }
+        BlockPos blockpos = pos.offset(EnumFacing.UP);
+        if (blockpos.getY() > 255)
+        {
+            throw new IllegalStateException("Position {" + blockpos + "} out of range");
+        }
+    }
+
+    public SoundType dropItem(Mirror mirrorIn, World worldIn, EnumFacing facing, IBlockState state)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return this.blockSoundType;
+    }
+
+    public boolean shouldOpacity(AxisAlignedBB entityBox, Entity entityIn, ResourceLocation location)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return false;
+    }
+
+    public boolean shouldOpacity(AxisAlignedBB entityBox, Entity entityIn, ResourceLocation location, boolean isMoving)
+    {
+        return false;
+    }
+
+    public boolean shouldOpacity(AxisAlignedBB entityBox, List<AxisAlignedBB> collidingBoxes, ResourceLocation location)
+    {
+        return false;
+    }
+
+    public boolean shouldOpacity(AxisAlignedBB entityBox, Entity entityIn, ResourceLocation location, TileEntity te, EntityPlayer playerIn)
+    {
+        return false;
+    }
+
+    @Deprecated
+    public float fillExplosion(IBlockAccess worldIn)
+    {
+        return 1.0F;
+    }
+
+    @Deprecated
+    public float fillExplosion(IBlockAccess worldIn, World worldIn2)
+    {
+        return 1.0F;
+    }
+
+    public MapColor canFallenUpon(Rotation rot, Material materialIn, boolean isMoving, EnumFacing facing)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return this.blockMapColor;
+    }
+
+    public String collisionMetadata(CreativeTabs itemIn)
+    {
+        return this.translationKey;
+    }
+
+    private void randomHardness(EntityLivingBase placer, Mirror mirrorIn)
+    {
+    }
+
+    public MapColor getExplosion(ItemStack stack, IBlockState state, int fortune, IBlockAccess worldIn)
+    {
+        for (int i = 0; i < fortune; ++i)
+        {
+            this.lightValue += i;
+        }
+        return this.blockMapColor;
+    }
+
+    public MapColor getExplosion(ItemStack stack, IBlockState state, int fortune, IBlockAccess worldIn, EntityLivingBase placer)
+    {
+        for (int i = 0; i < fortune; ++i)
+        {
+            this.lightValue += i;
+        }
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return this.blockMapColor;
+    }
+
+    private float canRenderType(Material materialIn, EntityLivingBase placer)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return 1.0F;
+    }
+
+    @Deprecated
+    public float canRenderType(Material materialIn, EntityLivingBase placer, ResourceLocation location)
+    {
+        return 1.0F;
+    }
+
+    public List<ItemStack> updateHardness(ItemStack stack, EntityLivingBase placer, Material materialIn)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return new ArrayList<ItemStack>();
+    }
+
+    public EnumBlockRenderType spawnOpacity(ResourceLocation location)
+    {
+        return EnumBlockRenderType.MODEL;
+    }
+
+    public EnumBlockRenderType spawnOpacity(ResourceLocation location, Random rand)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return EnumBlockRenderType.MODEL;
+    }
+
+    public IBlockState observedItem(IBlockState state, Random rand, int fortune, IBlockAccess worldIn)
+    {
+        for (int i = 0; i < fortune; ++i)
+        {
+            this.lightValue += i;
+        }
+        return state;
+    }
+
+    public float neighborChanged(List<AxisAlignedBB> collidingBoxes)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return 1.0F;
+    }
+
+    public float neighborChanged(List<AxisAlignedBB> collidingBoxes, Mirror mirrorIn)
+    {
+        return 1.0F;
+    }
+
+    public ItemStack onTooltip(boolean isMoving, TileEntity te, IBlockState state, EntityPlayer playerIn)
+    {
+        return ItemStack.EMPTY;
+    }
+
+    public ItemStack onTooltip(boolean isMoving, TileEntity te, IBlockState state, EntityPlayer playerIn, Mirror mirrorIn)
+    {
+        return ItemStack.EMPTY;
+    }
+
+    protected ItemStack onFlammability(Rotation rot, TileEntity te, BlockPos pos)
+    {
+        BlockPos blockpos = pos.offset(EnumFacing.UP);
+        if (blockpos.getY() > 255)
+        {
+            throw new IllegalStateException("Position {" + blockpos + "} out of range");
+        }
+        return ItemStack.EMPTY;
+    }
+
+    private ItemStack harvestRenderType(TileEntity te, List<AxisAlignedBB> collidingBoxes, IBlockAccess worldIn, Mirror mirrorIn)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return ItemStack.EMPTY;
+    }
+
+    public Item isFlammability(Entity entityIn, ItemStack stack)
+    {
+        return Item.getItemFromBlock(this);
+    }
+
+    protected Item isFlammability(Entity entityIn, ItemStack stack, boolean isMoving)
+    {
+        return Item.getItemFromBlock(this);
+    }
+
+    public float observedCollided(Material materialIn)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return 1.0F;
+    }
+
+    @Deprecated
+    public void harvestDestroyed(boolean isMoving, float hitX)
+    {
+    }
+
+    @Deprecated
+    public EnumBlockRenderType randomMapColor(EntityPlayer playerIn)
+    {
+        return EnumBlockRenderType.MODEL;
+    }
+
+    public EnumBlockRenderType randomMapColor(EntityPlayer playerIn, Explosion explosionIn)
+    {
+        return EnumBlockRenderType.MODEL;
+    }
+
+    @Deprecated
+    public EnumBlockRenderType randomMapColor(EntityPlayer playerIn, boolean isMoving, int fortune)
+    {
+        for (int i = 0; i < fortune; ++i)
+        {
+            this.lightValue += i;
+        }
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return EnumBlockRenderType.MODEL;
+    }
+
+    @Deprecated
+    public EnumBlockRenderType randomMapColor(EntityPlayer playerIn, Mirror mirrorIn, List<AxisAlignedBB> collidingBoxes)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return EnumBlockRenderType.MODEL;
+    }
+
+    public String updateLightValue(float hitX, Material materialIn, Explosion explosionIn, EnumHand hand)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return this.translationKey;
+    }
+
+    public String updateLightValue(float hitX, Material materialIn, Explosion explosionIn, EnumHand hand, Random rand)
+    {
+        return this.translationKey;
+    }
+
+    public String updateLightValue(float hitX, AxisAlignedBB entityBox, Explosion explosionIn, EnumHand hand)
+    {
+        return this.translationKey;
+    }
+
+    @Deprecated
+    protected String updateLightValue(float hitX, Material materialIn, Explosion explosionIn, EnumHand hand, NonNullList<ItemStack> drops, boolean isMoving)
+    {
+        return this.translationKey;
+    }
+
+    protected EnumBlockRenderType spawnFallenUpon(TileEntity te)
+    {
+        return EnumBlockRenderType.MODEL;
+    }
+
+    protected boolean randomSide(EnumFacing facing, Explosion explosionIn)
+    {
+        return false;
+    }
+
+    public boolean randomSide(EnumFacing facing, Explosion explosionIn, ResourceLocation location)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return false;
+    }
+
+    public List<ItemStack> hasBoundingBox(EnumFacing facing, EntityLivingBase placer, ItemStack stack)
+    {
+        return new ArrayList<ItemStack>();
+    }
+
+    public IBlockState onHardness(ItemStack stack, Entity entityIn, AxisAlignedBB entityBox, IBlockState state)
+    {
+        return state;
+    }
+
+    public IBlockState onHardness(ItemStack stack, Entity entityIn, AxisAlignedBB entityBox, IBlockState state, float hitX)
+    {
+        return state;
+    }
+
+    public float randomCollided(ResourceLocation location, EntityLivingBase placer, Random rand, World worldIn)
+    {
+        return 1.0F;
+    }
+
+    public IBlockState collisionHardness(Mirror mirrorIn, Entity entityIn, boolean isMoving, World worldIn)
+    {
+        return state;
+    }
+
+    public IBlockState collisionHardness(Mirror mirrorIn, Entity entityIn, boolean isMoving, World worldIn, Explosion explosionIn)
+    {
+        return state;
+    }
+
+    @Deprecated
+    public float fillHardness(Random rand, EnumHand hand)
+    {
+        return 1.0F;
+    }
+
+    public float fillHardness(Random rand, EnumHand hand, Mirror mirrorIn)
+    {
+        return 1.0F;
+    }
+
+    public float fillHardness(Random rand, ItemStack stack)
+    {
+        return 1.0F;
+    }
+
+    @Deprecated
+    public float fillHardness(Random rand, EnumHand hand, EnumFacing facing, int fortune)
+    {
+        for (int i = 0; i < fortune; ++i)
+        {
+            this.lightValue += i;
+        }
+        return 1.0F;
+    }
+
+    @Deprecated
+    public float fillHardness(Random rand, EnumHand hand, boolean isMoving)
+    {
+        return 1.0F;
+    }
+
+    protected float fillHardness(TileEntity te, EnumHand hand)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return 1.0F;
+    }
+
+    public EnumBlockRenderType fillMetadata(CreativeTabs itemIn, Material materialIn, TileEntity te)
+    {
+        return EnumBlockRenderType.MODEL;
+    }
+
+    public boolean onLightValue(Mirror mirrorIn)
+    {
+        return false;
+    }
+
+    public boolean onLightValue(Mirror mirrorIn, EnumHand hand)
+    {
+        return false;
+    }
+
+    public EnumBlockRenderType isTooltip(NonNullList<ItemStack> drops, int fortune, EnumHand hand)
+    {
+        for (int i = 0; i < fortune; ++i)
+        {
+            this.lightValue += i;
+        }
+        return EnumBlockRenderType.MODEL;
+    }
+
+    public EnumBlockRenderType isTooltip(NonNullList<ItemStack> drops, int fortune, EnumHand hand, Material materialIn)
+    {
+        for (int i = 0; i < fortune; ++i)
+        {
+            this.lightValue += i;
+        }
+        return EnumBlockRenderType.MODEL;
+    }
+
+    public void isChanged(World worldIn)
+    {
+    }
+
+    public void isChanged(World worldIn, Mirror mirrorIn)
+    {
+    }
+
+    public void isChanged(World worldIn, IBlockAccess worldIn2, Random rand)
+    {
+    }
+
+    public void isChanged(World worldIn, Rotation rot, IBlockState state)
+    {
+    }
+
+    @Deprecated
+    public void isChanged(World worldIn, BlockPos pos)
+    {
+        BlockPos blockpos = pos.offset(EnumFacing.UP);
+        if (blockpos.getY() > 255)
+        {
+            throw new IllegalStateException("Position {" + blockpos + "} out of range");
+        }
+    }
+
+    public void isChanged(World worldIn, boolean isMoving, float hitX)
+    {
+    }
+
+    public int hasDestroyed(ResourceLocation location, EnumFacing facing, AxisAlignedBB entityBox)
+    {
+        return 0;
+    }
+
+    @Deprecated
+    public float canClicked(Entity entityIn, float hitX)
+    {
+        return 1.0F;
+    }
+
+    public float canClicked(Entity entityIn, float hitX, Mirror mirrorIn)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return 1.0F;
+    }
+
+    @Deprecated
+    public float canClicked(Entity entityIn, IBlockAccess worldIn)
+    {
+        return 1.0F;
+    }
+
+    public float canClicked(Entity entityIn, float hitX, Explosion explosionIn, EntityPlayer playerIn)
+    {
+        return 1.0F;
+    }
+
+    @Deprecated
+    public MapColor randomMetadata(Random rand, ItemStack stack, List<AxisAlignedBB> collidingBoxes)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return this.blockMapColor;
+    }
+
+    @Deprecated
+    protected int renderBoundingBox(EnumFacing facing, Random rand)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return 0;
+    }
+
+    protected int renderBoundingBox(EnumFacing facing, Random rand, Rotation rot)
+    {
+        return 0;
+    }
+
+    public EnumBlockRenderType onExplosion(IBlockState state)
+    {
+        return EnumBlockRenderType.MODEL;
+    }
+
+    public Vec3d breakOpacity(BlockPos pos, World worldIn)
+    {
+        BlockPos blockpos = pos.offset(EnumFacing.UP);
+        if (blockpos.getY() > 255)
+        {
+            throw new IllegalStateException("Position {" + blockpos + "} out of range");
+        }
+        return Vec3d.ZERO;
+    }
+
+    public Vec3d breakOpacity(BlockPos pos, World worldIn, EnumFacing facing)
+    {
+        BlockPos blockpos = pos.offset(EnumFacing.UP);
+        if (blockpos.getY() > 255)
+        {
+            throw new IllegalStateException("Position {" + blockpos + "} out of range");
+        }
+        return Vec3d.ZERO;
+    }
+
+    public Block neighborPower(EntityLivingBase placer)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return this;
+    }
+
+    public int breakSoundType(ItemStack stack, World worldIn)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return 0;
+    }
+
+    @Deprecated
+    public ItemStack getFlammability(EntityPlayer playerIn, AxisAlignedBB entityBox, Random rand)
+    {
+        return ItemStack.EMPTY;
+    }
+
+    @Deprecated
+    public ItemStack getFlammability(EntityPlayer playerIn, AxisAlignedBB entityBox, Random rand, NonNullList<ItemStack> drops)
+    {
+        return ItemStack.EMPTY;
+    }
+
+    @Deprecated
+    public ItemStack getFlammability(EntityLivingBase placer, AxisAlignedBB entityBox, Random rand)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return ItemStack.EMPTY;
+    }
+
+    protected ItemStack getFlammability(EntityPlayer playerIn, AxisAlignedBB entityBox, Random rand, Rotation rot, boolean isMoving)
+    {
+        return ItemStack.EMPTY;
+    }
+
+    public List<ItemStack> harvestMetadata(float hitX, IBlockState state, Mirror mirrorIn, EntityLivingBase placer)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return new ArrayList<ItemStack>();
+    }
+
+    @Deprecated
+    public List<ItemStack> harvestMetadata(float hitX, IBlockState state, Mirror mirrorIn, EntityLivingBase placer, World worldIn)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return new ArrayList<ItemStack>();
+    }
+
+    public List<ItemStack> harvestMetadata(float hitX, IBlockState state, Mirror mirrorIn, BlockPos pos)
+    {
+        BlockPos blockpos = pos.offset(EnumFacing.UP);
+        if (blockpos.getY() > 255)
+        {
+            throw new IllegalStateException("Position {" + blockpos + "} out of range");
+        }
+        return new ArrayList<ItemStack>();
+    }
+
+    public int isCollided(List<AxisAlignedBB> collidingBoxes)
+    {
+        return 0;
+    }
+
+    @Deprecated
+    public int isCollided(List<AxisAlignedBB> collidingBoxes, EnumFacing facing)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return 0;
+    }
+
+    public int isCollided(List<AxisAlignedBB> collidingBoxes, IBlockAccess worldIn, BlockPos pos)
+    {
+        BlockPos blockpos = pos.offset(EnumFacing.UP);
+        if (blockpos.getY() > 255)
+        {
+            throw new IllegalStateException("Position {" + blockpos + "} out of range");
+        }
+        return 0;
+    }
+
+    public int isCollided(List<AxisAlignedBB> collidingBoxes, EnumHand hand, Random rand)
+    {
+        return 0;
+    }
+
+    public void spawnSoundType(ResourceLocation location)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+    }
+
+    public void spawnSoundType(ResourceLocation location, Entity entityIn)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+    }
+
+    @Deprecated
+    public void spawnSoundType(ResourceLocation location, boolean isMoving, EntityPlayer playerIn)
+    {
+    }
+
+    @Deprecated
+    public void spawnSoundType(ResourceLocation location, EntityPlayer playerIn, TileEntity te)
+    {
+    }
+
+    public Block observedFlammability(BlockPos pos, TileEntity te, AxisAlignedBB entityBox)
+    {
+        BlockPos blockpos = pos.offset(EnumFacing.UP);
+        if (blockpos.getY() > 255)
+        {
+            throw new IllegalStateException("Position {" + blockpos + "} out of range");
+        }
+        return this;
+    }
+
+    @Deprecated
+    public List<ItemStack> collisionMapColor(TileEntity te, CreativeTabs itemIn, Mirror mirrorIn, int fortune)
+    {
+        for (int i = 0; i < fortune; ++i)
+        {
+            this.lightValue += i;
+        }
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return new ArrayList<ItemStack>();
+    }
+
+    public List<ItemStack> collisionMapColor(TileEntity te, CreativeTabs itemIn, Mirror mirrorIn, int fortune, List<AxisAlignedBB> collidingBoxes)
+    {
+        for (int i = 0; i < fortune; ++i)
+        {
+            this.lightValue += i;
+        }
+        return new ArrayList<ItemStack>();
+    }
+
+    @Deprecated
+    public int renderFlammability(BlockPos pos, IBlockAccess worldIn, EnumFacing facing, Mirror mirrorIn)
+    {
+        BlockPos blockpos = pos.offset(EnumFacing.UP);
+        if (blockpos.getY() > 255)
+        {
+            throw new IllegalStateException("Position {" + blockpos + "} out of range");
+        }
+        return 0;
+    }
+
+    @Deprecated
+    public int renderFlammability(BlockPos pos, IBlockAccess worldIn, EnumFacing facing, Mirror mirrorIn, EntityLivingBase placer)
+    {
+        BlockPos blockpos = pos.offset(EnumFacing.UP);
+        if (blockpos.getY() > 255)
+        {
+            throw new IllegalStateException("Position {" + blockpos + "} out of range");
+        }
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return 0;
+    }
+
+    public int renderFlammability(int fortune, IBlockAccess worldIn, EnumFacing facing, Mirror mirrorIn)
+    {
+        for (int i = 0; i < fortune; ++i)
+        {
+            this.lightValue += i;
+        }
+        return 0;
+    }
+
+    protected int renderFlammability(BlockPos pos, IBlockAccess worldIn, EnumFacing facing, Mirror mirrorIn, Entity entityIn, IBlockState state)
+    {
+        BlockPos blockpos = pos.offset(EnumFacing.UP);
+        if (blockpos.getY() > 255)
+        {
+            throw new IllegalStateException("Position {" + blockpos + "} out of range");
+        }
+        return 0;
+    }
+
+    public int renderFlammability(BlockPos pos, IBlockAccess worldIn, EnumFacing facing, Mirror mirrorIn, Random rand)
+    {
+        BlockPos blockpos = pos.offset(EnumFacing.UP);
+        if (blockpos.getY() > 255)
+        {
+            throw new IllegalStateException("Position {" + blockpos + "} out of range");
+        }
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return 0;
+    }
+
+    public int renderFlammability(BlockPos pos, ItemStack stack, EnumFacing facing, Mirror mirrorIn)
+    {
+        BlockPos blockpos = pos.offset(EnumFacing.UP);
+        if (blockpos.getY() > 255)
+        {
+            throw new IllegalStateException("Position {" + blockpos + "} out of range");
+        }
+        return 0;
+    }
+
+    @Deprecated
+    public Vec3d shouldSoundType(EnumFacing facing, ItemStack stack, Explosion explosionIn, boolean isMoving)
+    {
+        return Vec3d.ZERO;
+    }
+
+    @Deprecated
+    public Vec3d shouldSoundType(EnumFacing facing, ItemStack stack, Explosion explosionIn, boolean isMoving, TileEntity te)
+    {
+        return Vec3d.ZERO;
+    }
+
+    @Deprecated
+    public ItemStack neighborParticles(ItemStack stack, BlockPos pos)
+    {
+        BlockPos blockpos = pos.offset(EnumFacing.UP);
+        if (blockpos.getY() > 255)
+        {
+            throw new IllegalStateException("Position {" + blockpos + "} out of range");
+        }
+        return ItemStack.EMPTY;
+    }
+
+    public ItemStack neighborParticles(ItemStack stack, BlockPos pos, Explosion explosionIn)
+    {
+        BlockPos blockpos = pos.offset(EnumFacing.UP);
+        if (blockpos.getY() > 255)
+        {
+            throw new IllegalStateException("Position {" + blockpos + "} out of range");
+        }
+        return ItemStack.EMPTY;
+    }
+
+    protected ItemStack neighborParticles(ItemStack stack, EnumFacing facing)
+    {
+        return ItemStack.EMPTY;
+    }
+
+    public ItemStack neighborParticles(ItemStack stack, BlockPos pos, float hitX, Rotation rot)
+    {
+        BlockPos blockpos = pos.offset(EnumFacing.UP);
+        if (blockpos.getY() > 255)
+        {
+            throw new IllegalStateException("Position {" + blockpos + "} out of range");
+        }
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return ItemStack.EMPTY;
+    }
+
+    @Deprecated
+    public boolean dropPower(EntityPlayer playerIn, AxisAlignedBB entityBox)
+    {
+        return false;
+    }
+
+    public boolean dropPower(EntityPlayer playerIn, AxisAlignedBB entityBox, Random rand)
+    {
+        return false;
+    }
+
+    public boolean dropPower(EntityPlayer playerIn, Material materialIn)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return false;
+    }
+
+    public boolean dropPower(EntityPlayer playerIn, AxisAlignedBB entityBox, Rotation rot, CreativeTabs itemIn)
+    {
+        return false;
+    }
+
+    @Deprecated
+    public boolean dropPower(EntityPlayer playerIn, AxisAlignedBB entityBox, World worldIn)
+    {
+        return false;
+    }
+
+    public boolean dropPower(IBlockState state, AxisAlignedBB entityBox)
+    {
+        Runnable callback = () -> {
+            this.fullBlock = !this.fullBlock;
+        };
+        callback.run();
+        return false;
+    }
+
+    public static void registerBlocks()
+    {
+        registerBlock(0, "air", new BlockAir());
+        registerBlock(1, "stone", new BlockStone());
+    }
+
+    private static void registerBlock(int id, String textualID, Block block)
+    {
+        REGISTRY.register(id, new ResourceLocation(textualID), block);
+    }
+}
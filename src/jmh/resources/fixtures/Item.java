@@ -0,0 +1,38 @@
+package net.minecraft.item;
+
+/**
+ * Synthetic stand in for a small decompiled class.
+ */
+public class Item
+{
+    private int maxStackSize = 64;
+
+    public ItemStack getDefaultInstance()
+    {
+        return new ItemStack(this);
+    }
+
+    public int getItemStackLimit(ItemStack stack)
+    {
+        return this.maxStackSize;
+    }
+
+    public void onUpdate(ItemStack stack, World worldIn, Entity entityIn, int itemSlot, boolean isSelected)
+    {
+    }
+
+    public boolean onEntitySwing(EntityLivingBase entityLiving, ItemStack stack)
+    {
+        return false;
+    }
+
+    public EnumActionResult onItemUse(EntityPlayer player, World worldIn, BlockPos pos, EnumHand hand, EnumFacing facing, float hitX, float hitY, float hitZ)
+    {
+        return EnumActionResult.PASS;
+    }
+
+    public EnumActionResult onItemUse(EntityPlayer player, World worldIn, BlockPos pos, EnumHand hand)
+    {
+        return EnumActionResult.PASS;
+    }
+}
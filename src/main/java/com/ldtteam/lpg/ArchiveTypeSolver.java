@@ -0,0 +1,104 @@
+package com.ldtteam.lpg;
+
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.symbolsolver.javaparsermodel.JavaParserFactory;
+import com.github.javaparser.symbolsolver.model.resolution.SymbolReference;
+import com.github.javaparser.symbolsolver.model.resolution.TypeSolver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Solves the types of the sources below a root of any file system, like a zip file system. The JavaParserTypeSolver of
+ * the symbol solver only reads from the default file system.
+ * <p>
+ * Like the JavaParserTypeSolver, a qualified name is looked up as the source file of its longest prefix, the rest of the
+ * name are the nested types. Parsed sources are kept, the solver is not thread safe.
+ */
+public class ArchiveTypeSolver implements TypeSolver
+{
+    private final Path                                 sourceRoot;
+    private final Map<Path, Optional<CompilationUnit>> sources = new HashMap<>();
+    private TypeSolver                                 parent;
+
+    public ArchiveTypeSolver(final Path sourceRoot)
+    {
+        this.sourceRoot = sourceRoot;
+    }
+
+    @Override
+    public TypeSolver getParent()
+    {
+        return parent;
+    }
+
+    @Override
+    public void setParent(final TypeSolver parent)
+    {
+        this.parent = parent;
+    }
+
+    @Override
+    public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(final String name)
+    {
+        final String[] parts = name.split("\\.");
+        for (int i = parts.length; i > 0; i--)
+        {
+            final Optional<CompilationUnit> source = parse(sourceRoot.resolve(String.join("/", Arrays.copyOfRange(parts, 0, i)) + ".java"));
+            if (!source.isPresent())
+            {
+                continue;
+            }
+
+            final String typeName = parts[i - 1];
+            Optional<TypeDeclaration<?>> type = source.get().getTypes().stream().filter(t -> t.getNameAsString().equals(typeName)).<TypeDeclaration<?>>map(t -> t).findFirst();
+            for (int j = i; j < parts.length && type.isPresent(); j++)
+            {
+                final String nestedName = parts[j];
+                type = type.get()
+                         .getMembers()
+                         .stream()
+                         .filter(BodyDeclaration::isTypeDeclaration)
+                         .<TypeDeclaration<?>>map(BodyDeclaration::asTypeDeclaration)
+                         .filter(t -> t.getNameAsString().equals(nestedName))
+                         .findFirst();
+            }
+
+            if (type.isPresent())
+            {
+                return SymbolReference.solved(JavaParserFactory.toTypeDeclaration(type.get(), getRoot()));
+            }
+        }
+
+        return SymbolReference.unsolved(ResolvedReferenceTypeDeclaration.class);
+    }
+
+    private Optional<CompilationUnit> parse(final Path file)
+    {
+        return sources.computeIfAbsent(file, f -> {
+            if (!Files.isRegularFile(f))
+            {
+                return Optional.empty();
+            }
+
+            try
+            {
+                final ParseResult<CompilationUnit> result = Parsers.parse(f, true);
+                return result.getResult();
+            }
+            catch (IOException e)
+            {
+                return Optional.empty();
+            }
+        });
+    }
+}
@@ -0,0 +1,104 @@
+package com.ldtteam.lpg;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.SimpleName;
+import com.github.javaparser.ast.stmt.BlockStmt;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import com.github.javaparser.ast.type.Type;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A code shape that is parsed once and instantiated by cloning.
+ * <p>
+ * Placeholders are the identifiers $0, $1, ... A type placeholder ($0 on its own) is replaced by a {@link Type} argument,
+ * or by all types of a {@link List} argument when it sits in a type argument list. A placeholder inside any other name
+ * ($0Pipeline) is replaced textually by a {@link String} argument.
+ */
+public final class AstTemplate<N extends Node>
+{
+    private static final Map<String, Type> TYPE_ARGUMENTS = new ConcurrentHashMap<>();
+
+    private final N prototype;
+
+    private AstTemplate(final N prototype)
+    {
+        this.prototype = prototype;
+    }
+
+    public static AstTemplate<ClassOrInterfaceType> type(final String shape)
+    {
+        return new AstTemplate<>(Parsers.parse(p -> p.parseClassOrInterfaceType(shape)));
+    }
+
+    public static AstTemplate<Expression> expression(final String shape)
+    {
+        return new AstTemplate<>(Parsers.parse(p -> p.parseExpression(shape)));
+    }
+
+    public static AstTemplate<BlockStmt> block(final String shape)
+    {
+        return new AstTemplate<>(Parsers.parse(p -> p.parseBlock(shape)));
+    }
+
+    /**
+     * Parses a type argument (including wildcards) once and returns a fresh copy of it on every call.
+     */
+    public static Type typeArgument(final String typeArgument)
+    {
+        return TYPE_ARGUMENTS.computeIfAbsent(typeArgument, t -> Parsers.parse(p -> p.parseClassOrInterfaceType("T<" + t + ">"))
+                                                                   .getTypeArguments()
+                                                                   .get()
+                                                                   .get(0)).clone();
+    }
+
+    @SuppressWarnings("unchecked")
+    public N instantiate(final Object... arguments)
+    {
+        final N instance = (N) prototype.clone();
+
+        for (final SimpleName name : instance.findAll(SimpleName.class, n -> n.getIdentifier().contains("$") && !isPlaceholder(n.getIdentifier())))
+        {
+            String identifier = name.getIdentifier();
+            for (int i = 0; i < arguments.length; i++)
+            {
+                if (arguments[i] instanceof String)
+                {
+                    identifier = identifier.replace("$" + i, (String) arguments[i]);
+                }
+            }
+
+            name.setIdentifier(identifier);
+        }
+
+        for (final ClassOrInterfaceType placeholder : instance.findAll(ClassOrInterfaceType.class, t -> isPlaceholder(t.getNameAsString())))
+        {
+            final Object argument = arguments[Integer.parseInt(placeholder.getNameAsString().substring(1))];
+            if (argument instanceof List)
+            {
+                final NodeList<Type> typeArguments = ((ClassOrInterfaceType) placeholder.getParentNode().get()).getTypeArguments().get();
+                final int index = typeArguments.indexOf(placeholder);
+                typeArguments.remove(index);
+                for (int i = 0; i < ((List<?>) argument).size(); i++)
+                {
+                    typeArguments.add(index + i, ((Type) ((List<?>) argument).get(i)).clone());
+                }
+            }
+            else
+            {
+                placeholder.replace(((Type) argument).clone());
+            }
+        }
+
+        return instance;
+    }
+
+    private static boolean isPlaceholder(final String name)
+    {
+        return name.length() > 1 && name.charAt(0) == '$' && name.substring(1).chars().allMatch(Character::isDigit);
+    }
+}
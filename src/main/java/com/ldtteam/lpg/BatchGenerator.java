@@ -0,0 +1,920 @@
+package com.ldtteam.lpg;
+
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.Problem;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import com.google.gson.Gson;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs the generator over every compilation unit below a source root on a work stealing pool.
+ * <p>
+ * Every input is a task of its own. Inputs of one directory can generate the same files, those are written once the
+ * whole directory is done, in sorted order, so the output is identical to running the per-file mode over the same inputs
+ * in sorted order.
+ * <p>
+ * When a manifest file is set, inputs whose fingerprint, mapping and settings did not change since the last run are
+ * skipped. An unchanged input is still regenerated when it shares an output file with a regenerated input of its group,
+ * so the last writer of every shared file stays the same as in a full run.
+ * <p>
+ * The source root can be the root of a zip file system, entries are filtered by their path before they are read and only
+ * decompressed once. A long running caller can pass the files that changed since the last run instead, then only the directories of the
+ * changed inputs are looked at and the record of the last run is kept in memory.
+ * <p>
+ * A run can be restricted to one shard of the inputs, so several processes can generate one source tree. Shards are
+ * split by directory, because inputs of one directory share outputs, so the outputs do not depend on the amount of shards.
+ * The directories are balanced over the shards by the size of their inputs. Each shard records its own manifest,
+ * {@link GenerationManifest#merge(List)} combines them.
+ */
+public class BatchGenerator
+{
+    private final Path sourceRoot;
+    private Generator generator;
+    private CapturingOutputSink outputSink;
+    private final List<PathMatcher> includes = new ArrayList<>();
+    private final List<PathMatcher> excludes = new ArrayList<>();
+
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private Path manifestFile = null;
+    private Path typeCacheFile = null;
+    private String mappingFingerprint = "";
+    private boolean forceRegeneration = false;
+    private boolean signaturesOnly = false;
+    private int shard = 1;
+    private int shardCount = 1;
+    private Set<Path> shardDirectories = Collections.emptySet();
+
+    private final Set<String> invalidatedInputs = ConcurrentHashMap.newKeySet();
+    private GenerationManifest lastManifest = null;
+
+    private final AtomicInteger generatedInputs = new AtomicInteger();
+    private final AtomicInteger skippedInputs = new AtomicInteger();
+    private final AtomicInteger prunedOutputs = new AtomicInteger();
+
+    public BatchGenerator(final Path sourceRoot, final Generator generator)
+    {
+        this.sourceRoot = sourceRoot;
+        setGenerator(generator);
+    }
+
+    /**
+     * Replaces the generator of the next runs, for example after the mapping changed. The generator is copied, so the
+     * batch generator can hold back its files until their directory is done.
+     */
+    public void setGenerator(final Generator generator)
+    {
+        final GeneratorConfiguration configuration = generator.getConfiguration();
+        this.outputSink = new CapturingOutputSink(configuration.getOutputSink());
+        configuration.setOutputSink(outputSink);
+        this.generator = new Generator(configuration);
+    }
+
+    public void addInclude(final String glob)
+    {
+        includes.add(sourceRoot.getFileSystem().getPathMatcher("glob:" + glob));
+    }
+
+    public void addExclude(final String glob)
+    {
+        excludes.add(sourceRoot.getFileSystem().getPathMatcher("glob:" + glob));
+    }
+
+    public void setParallelism(final int parallelism)
+    {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public void setManifestFile(final Path manifestFile)
+    {
+        this.manifestFile = manifestFile;
+    }
+
+    /**
+     * @param typeCacheFile the file the type graph of the generator is cached in between runs, or null.
+     */
+    public void setTypeCacheFile(final Path typeCacheFile)
+    {
+        this.typeCacheFile = typeCacheFile;
+    }
+
+    public void setMappingFingerprint(final String mappingFingerprint)
+    {
+        this.mappingFingerprint = mappingFingerprint;
+    }
+
+    public void setForceRegeneration(final boolean forceRegeneration)
+    {
+        this.forceRegeneration = forceRegeneration;
+    }
+
+    public void setSignaturesOnly(final boolean signaturesOnly)
+    {
+        this.signaturesOnly = signaturesOnly;
+    }
+
+    /**
+     * Restricts the runs to the inputs of one shard.
+     *
+     * @param shard      the shard to generate, from 1 to the amount of shards.
+     * @param shardCount the amount of shards the inputs are split into.
+     */
+    public void setShard(final int shard, final int shardCount)
+    {
+        if (shardCount < 1 || shard < 1 || shard > shardCount)
+        {
+            throw new IllegalArgumentException("Invalid shard: " + shard + "/" + shardCount);
+        }
+
+        this.shard = shard;
+        this.shardCount = shardCount;
+    }
+
+    public int getGeneratedInputs()
+    {
+        return generatedInputs.get();
+    }
+
+    public int getSkippedInputs()
+    {
+        return skippedInputs.get();
+    }
+
+    public int getPrunedOutputs()
+    {
+        return prunedOutputs.get();
+    }
+
+    /**
+     * Fingerprint of every setting that influences the generated output of an input. The output directories are not part
+     * of it, outputs are recorded relative to them and an input whose outputs are missing is regenerated anyway, so
+     * shards writing to different directories can be merged.
+     */
+    public String getSettingsFingerprint()
+    {
+        final GeneratorConfiguration configuration = generator.getConfiguration();
+        return GenerationManifest.fingerprint(new Gson().toJson(new TreeMap<>(configuration.getWhitelist().getMethodsByClass()))
+                                                + configuration.getInterfacePackage() + "|" + configuration.getBuilderPackage() + "|" + configuration.getContextPackage()
+                                                + "|" + configuration.isFrozenPipelines()
+                                                + "|" + configuration.isReusableContexts() + "|" + configuration.isPrimitivePipelines()
+                                                + "|" + configuration.isSharedContexts() + "|" + (configuration.getTypeGraph() != null)
+                                                + "|" + (configuration.getBenchmarkRoot() != null));
+    }
+
+    /**
+     * Marks inputs, relative to the source root, to be regenerated on the next run even if they did not change.
+     */
+    public void invalidate(final Collection<String> inputs)
+    {
+        invalidatedInputs.addAll(inputs);
+    }
+
+    /**
+     * @return the record of the last run, or null before the first run.
+     */
+    public GenerationManifest getLastManifest()
+    {
+        return lastManifest;
+    }
+
+    /**
+     * Generates all included inputs.
+     *
+     * @return the amount of inputs that failed to generate.
+     */
+    public int generate() throws IOException, InterruptedException
+    {
+        final GenerationManifest previousManifest = manifestFile == null ? new GenerationManifest() : GenerationManifest.load(manifestFile);
+        final List<Path> inputs = collectInputs(previousManifest);
+        updateTypeGraph(inputs, true);
+
+        final String settingsFingerprint = getSettingsFingerprint();
+        final GenerationManifest reusableManifest =
+          !forceRegeneration && previousManifest.isCompatible(mappingFingerprint, settingsFingerprint) ? previousManifest : new GenerationManifest();
+        final GenerationManifest manifest = new GenerationManifest(mappingFingerprint, settingsFingerprint);
+
+        //The type graph above needs the declarations of all shards, only the inputs of this shard are generated.
+        assignShards(inputs);
+        return generate(inputs.stream().filter(this::isInShard).collect(Collectors.toList()), previousManifest, reusableManifest, manifest);
+    }
+
+    /**
+     * Regenerates after the given files changed since the last run, without walking the source root.
+     * <p>
+     * The directories of the changed and invalidated inputs are generated like in a full run, every other input keeps its
+     * record of the last run. The mapping of the last run is assumed to still apply, inputs that use a changed mapping
+     * have to be invalidated.
+     *
+     * @param changedFiles the created, modified and deleted files.
+     * @return the amount of inputs that failed to generate.
+     */
+    public int generate(final Collection<Path> changedFiles) throws IOException, InterruptedException
+    {
+        if (lastManifest == null)
+        {
+            return generate();
+        }
+
+        final GenerationManifest previousManifest = lastManifest;
+        final Set<String> previousOutputs = previousManifest.getInputs()
+                                              .values()
+                                              .stream()
+                                              .flatMap(e -> e.getOutputs().stream())
+                                              .collect(Collectors.toSet());
+
+        final Set<Path> changedDirectories = new HashSet<>();
+        final List<Path> changedInputs = new ArrayList<>();
+        for (final Path changedFile : changedFiles)
+        {
+            final Path file = changedFile.toAbsolutePath();
+            if (!file.startsWith(sourceRoot.toAbsolutePath()) || !file.getFileName().toString().endsWith(".java") || isPreviousOutput(file, previousOutputs, previousManifest))
+            {
+                continue;
+            }
+
+            final String name = relativeName(file);
+            if (!isIncluded(sourceRoot.resolve(name)))
+            {
+                continue;
+            }
+
+            final Optional<GenerationManifest.Entry> previousEntry = previousManifest.getInput(name);
+
+            if (previousEntry.isPresent() && Files.isRegularFile(file) && !invalidatedInputs.contains(name) && previousEntry.get().getFingerprint().equals(fingerprint(file)))
+            {
+                continue;
+            }
+
+            changedDirectories.add(sourceRoot.resolve(name).getParent());
+            changedInputs.add(sourceRoot.resolve(name));
+        }
+        updateTypeGraph(changedInputs, false);
+        invalidatedInputs.forEach(name -> changedDirectories.add(sourceRoot.resolve(name).getParent()));
+
+        final GenerationManifest manifest = new GenerationManifest(mappingFingerprint, previousManifest.getSettingsFingerprint());
+        final List<Path> inputs = new ArrayList<>();
+        for (final Path directory : changedDirectories)
+        {
+            if (Files.isDirectory(directory))
+            {
+                try (Stream<Path> files = Files.list(directory))
+                {
+                    files.filter(Files::isRegularFile)
+                      .filter(p -> p.getFileName().toString().endsWith(".java"))
+                      .filter(p -> !isPreviousOutput(p, previousOutputs, previousManifest))
+                      .filter(this::isIncluded)
+                      .filter(this::isInShard)
+                      .forEach(inputs::add);
+                }
+            }
+        }
+        Collections.sort(inputs);
+
+        //Inputs outside of the changed directories keep their record, unless they were deleted.
+        previousManifest.getInputs().forEach((name, entry) -> {
+            if (!changedDirectories.contains(sourceRoot.resolve(name).getParent()))
+            {
+                manifest.putInput(name, entry);
+            }
+        });
+
+        return generate(inputs, previousManifest, previousManifest, manifest);
+    }
+
+    private int generate(final List<Path> inputs, final GenerationManifest previousManifest, final GenerationManifest reusableManifest, final GenerationManifest manifest)
+      throws IOException, InterruptedException
+    {
+        final Collection<List<Path>> packages = inputs.stream()
+                                                  .collect(Collectors.groupingBy(Path::getParent, LinkedHashMap::new, Collectors.toList()))
+                                                  .values();
+
+        //Bounds the amount of queued inputs, so only a handful of ASTs are alive at any given time.
+        final int maxInFlight = parallelism * 2;
+        final Semaphore inFlight = new Semaphore(maxInFlight);
+        final Set<String> failedInputs = ConcurrentHashMap.newKeySet();
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+
+        try
+        {
+            for (final List<Path> packageInputs : packages)
+            {
+                final PackageRun packageRun = new PackageRun(packageInputs, reusableManifest, manifest, failedInputs);
+                for (final Path inputFile : packageInputs)
+                {
+                    inFlight.acquire();
+                    pool.execute(() -> {
+                        try
+                        {
+                            packageRun.process(inputFile);
+                        }
+                        finally
+                        {
+                            inFlight.release();
+                        }
+                    });
+                }
+            }
+
+            inFlight.acquire(maxInFlight);
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+
+        //Failed inputs keep their previous outputs on record, so they are not mistaken for inputs, and are retried next run.
+        failedInputs.forEach(name -> previousManifest.getInput(name).ifPresent(e -> manifest.putInput(name, new GenerationManifest.Entry("", e.getOutputs(), e.getTypes()))));
+        invalidatedInputs.clear();
+
+        if (manifestFile != null)
+        {
+            pruneStaleOutputs(previousManifest, manifest, inputs.stream().map(this::relativeName).collect(Collectors.toSet()));
+            Files.createDirectories(manifestFile.toAbsolutePath().getParent());
+            manifest.save(manifestFile);
+        }
+
+        if (typeCacheFile != null && generator.getConfiguration().getTypeGraph() != null)
+        {
+            generator.getConfiguration().getTypeGraph().save(typeCacheFile);
+        }
+
+        lastManifest = manifest;
+        return failedInputs.size();
+    }
+
+    /**
+     * Brings the type graph of the generator up to date with the given inputs, before any of them is generated. Only
+     * inputs whose fingerprint differs from the graph are parsed, in parallel, and inputs whose super class may resolve
+     * differently because types were added or removed. Inputs that extend a type whose declaration changed are
+     * invalidated, because their super types and inherited methods may have changed.
+     *
+     * @param removeOthers if true, the inputs of the graph that are not given are removed from it.
+     */
+    private void updateTypeGraph(final Collection<Path> inputs, final boolean removeOthers) throws IOException, InterruptedException
+    {
+        final TypeGraph typeGraph = generator.getConfiguration().getTypeGraph();
+        if (typeGraph == null)
+        {
+            return;
+        }
+
+        if (typeCacheFile != null && typeGraph.getInputs().isEmpty())
+        {
+            typeGraph.load(typeCacheFile);
+        }
+
+        final Map<String, TypeGraph.Declarations> declarations = new ConcurrentHashMap<>();
+        try
+        {
+            declareInputs(typeGraph, inputs, declarations, true);
+            if (removeOthers)
+            {
+                final Set<String> names = inputs.stream().map(this::relativeName).collect(Collectors.toSet());
+                typeGraph.getInputs().stream().filter(name -> !names.contains(name)).forEach(name -> declarations.put(name, new TypeGraph.Declarations(null, null)));
+            }
+
+            declareInputs(typeGraph, typeGraph.getReferencingInputs(declarations).stream().map(sourceRoot::resolve).collect(Collectors.toList()), declarations, false);
+        }
+        finally
+        {
+            typeGraph.clearSources();
+        }
+
+        invalidatedInputs.addAll(typeGraph.update(declarations));
+    }
+
+    /**
+     * Parses and declares inputs in parallel.
+     *
+     * @param onlyChanged if true, inputs whose fingerprint the graph already knows are skipped.
+     */
+    private void declareInputs(final TypeGraph typeGraph, final Collection<Path> inputs, final Map<String, TypeGraph.Declarations> declarations, final boolean onlyChanged)
+      throws IOException, InterruptedException
+    {
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try
+        {
+            pool.submit(() -> inputs.parallelStream().forEach(inputFile -> {
+                final String name = relativeName(inputFile);
+                if (!Files.isRegularFile(inputFile))
+                {
+                    declarations.put(name, new TypeGraph.Declarations(null, null));
+                    return;
+                }
+
+                try
+                {
+                    final byte[] content = Files.readAllBytes(inputFile);
+                    final String fingerprint = GenerationManifest.fingerprint(content);
+                    if (onlyChanged && fingerprint.equals(typeGraph.getFingerprint(name)))
+                    {
+                        return;
+                    }
+
+                    final ParseResult<CompilationUnit> result = Parsers.parse(content, true);
+                    if (result.isSuccessful())
+                    {
+                        declarations.put(name, new TypeGraph.Declarations(fingerprint, typeGraph.declare(result.getResult().get())));
+                    }
+                }
+                catch (IOException e)
+                {
+                    //Recorded as failure when the input is generated.
+                }
+            })).get();
+        }
+        catch (ExecutionException e)
+        {
+            throw new IOException("Failed to build the type graph.", e.getCause());
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Deletes the files that a previous run generated but no input generates anymore.
+     * Inputs that still exist but were filtered out of this run keep their outputs. Inputs that moved to another shard are
+     * dropped from the manifest, their outputs are left to that shard.
+     */
+    private void pruneStaleOutputs(final GenerationManifest previousManifest, final GenerationManifest manifest, final Set<String> processedInputs) throws IOException
+    {
+        final List<String> removedInputs = new ArrayList<>();
+        final Set<String> movedOutputs = new HashSet<>();
+        previousManifest.getInputs().forEach((name, entry) -> {
+            if (!processedInputs.contains(name) && !manifest.getInputs().containsKey(name))
+            {
+                final Path inputFile = sourceRoot.resolve(name);
+                if (Files.exists(inputFile) && isIncluded(inputFile) && !isInShard(inputFile))
+                {
+                    movedOutputs.addAll(entry.getOutputs());
+                }
+                else if (Files.exists(inputFile))
+                {
+                    manifest.putInput(name, entry);
+                }
+                else
+                {
+                    removedInputs.add(name);
+                }
+            }
+        });
+
+        final Set<String> currentOutputs = manifest.getInputs().values().stream().flatMap(e -> e.getOutputs().stream()).collect(Collectors.toSet());
+        final Set<String> staleOutputs = previousManifest.getInputs()
+                                           .values()
+                                           .stream()
+                                           .flatMap(e -> e.getOutputs().stream())
+                                           .filter(o -> !currentOutputs.contains(o) && !movedOutputs.contains(o) && !manifest.getInputs().containsKey(o))
+                                           .collect(Collectors.toCollection(TreeSet::new));
+
+        for (final String staleOutput : staleOutputs)
+        {
+            generator.getConfiguration().getOutputSink().delete(resolveOutput(staleOutput));
+        }
+
+        prunedOutputs.addAndGet(staleOutputs.size());
+    }
+
+    private GenerationMetrics getMetrics()
+    {
+        return generator.getConfiguration().getMetrics();
+    }
+
+    private static String fingerprint(final Path file) throws IOException
+    {
+        return GenerationManifest.fingerprint(Files.readAllBytes(file));
+    }
+
+    private String relativeName(final Path file)
+    {
+        return sourceRoot.toAbsolutePath().relativize(file.toAbsolutePath()).toString().replace(File.separatorChar, '/');
+    }
+
+    /**
+     * The directory the outputs are recorded relative to, the output root of the generator or the source root.
+     */
+    private Path getOutputBase()
+    {
+        final Path outputRoot = generator.getConfiguration().getOutputRoot();
+        return outputRoot == null ? sourceRoot : outputRoot;
+    }
+
+    private String outputName(final Path file)
+    {
+        return getOutputBase().toAbsolutePath().relativize(file.toAbsolutePath()).toString().replace(File.separatorChar, '/');
+    }
+
+    private Path resolveOutput(final String output)
+    {
+        return getOutputBase().resolve(output);
+    }
+
+    /**
+     * Checks if a file below the source root is an output of the previous run rather than an input.
+     * Interfaces generate into their own source file, those stay inputs.
+     */
+    private boolean isPreviousOutput(final Path file, final Set<String> previousOutputs, final GenerationManifest previousManifest)
+    {
+        if (isBelow(file, generator.getConfiguration().getBenchmarkRoot()))
+        {
+            return true;
+        }
+
+        final Path outputRoot = generator.getConfiguration().getOutputRoot();
+        if (outputRoot != null)
+        {
+            return isBelow(file, outputRoot);
+        }
+
+        return previousOutputs.contains(relativeName(file)) && !previousManifest.getInputs().containsKey(relativeName(file));
+    }
+
+    private static boolean isBelow(final Path file, final Path root)
+    {
+        return root != null && root.getFileSystem() == file.getFileSystem() && file.toAbsolutePath().startsWith(root.toAbsolutePath());
+    }
+
+    /**
+     * Collects the inputs below the source root, skipping files that a previous run generated.
+     */
+    private List<Path> collectInputs(final GenerationManifest previousManifest) throws IOException
+    {
+        final Set<String> previousOutputs = previousManifest.getInputs()
+                                              .values()
+                                              .stream()
+                                              .flatMap(e -> e.getOutputs().stream())
+                                              .collect(Collectors.toSet());
+
+        try (Stream<Path> files = Files.walk(sourceRoot))
+        {
+            return files.filter(Files::isRegularFile)
+                     .filter(p -> p.getFileName().toString().endsWith(".java"))
+                     .filter(p -> !isPreviousOutput(p, previousOutputs, previousManifest))
+                     .filter(this::isIncluded)
+                     .sorted()
+                     .collect(Collectors.toList());
+        }
+    }
+
+    private boolean isIncluded(final Path inputFile)
+    {
+        final Path relativePath = sourceRoot.relativize(inputFile);
+
+        if (!includes.isEmpty() && includes.stream().noneMatch(m -> m.matches(relativePath)))
+        {
+            return false;
+        }
+
+        return excludes.stream().noneMatch(m -> m.matches(relativePath));
+    }
+
+    /**
+     * Spreads the directories of all inputs over the shards by the size of their inputs, largest first onto the shard
+     * with the least input so far. Every shard sees the same inputs, so every shard makes the same assignment.
+     */
+    private void assignShards(final List<Path> inputs) throws IOException
+    {
+        if (shardCount == 1)
+        {
+            return;
+        }
+
+        final Map<Path, Long> directorySizes = new HashMap<>();
+        for (final Path inputFile : inputs)
+        {
+            directorySizes.merge(inputFile.getParent(), Files.size(inputFile), Long::sum);
+        }
+
+        final List<Path> directories = new ArrayList<>(directorySizes.keySet());
+        directories.sort(Comparator.<Path, Long>comparing(directorySizes::get).reversed().thenComparing(this::relativeName));
+
+        final long[] shardSizes = new long[shardCount];
+        final Set<Path> assignedDirectories = new HashSet<>();
+        for (final Path directory : directories)
+        {
+            int smallestShard = 0;
+            for (int i = 1; i < shardCount; i++)
+            {
+                if (shardSizes[i] < shardSizes[smallestShard])
+                {
+                    smallestShard = i;
+                }
+            }
+
+            shardSizes[smallestShard] += directorySizes.get(directory);
+            if (smallestShard == shard - 1)
+            {
+                assignedDirectories.add(directory);
+            }
+        }
+
+        shardDirectories = assignedDirectories;
+    }
+
+    /**
+     * Checks if an input belongs to the shard of this generator. Inputs of one directory can share outputs, so a directory
+     * is never split over shards.
+     */
+    private boolean isInShard(final Path inputFile)
+    {
+        return shardCount == 1 || shardDirectories.contains(inputFile.getParent());
+    }
+
+    /**
+     * Generates a single input. The generated files are not written but returned, see {@link PackageRun}.
+     *
+     * @param content the content of the input, or null to read it.
+     * @return the generated files, their names relative to the output root and the names of the types the input uses,
+     * or null if the input failed to generate.
+     */
+    @SuppressWarnings("try")
+    private GeneratedInput generateFile(final Path inputFile, final byte[] content)
+    {
+        outputSink.capture();
+        try
+        {
+            final ParseResult<CompilationUnit> result;
+            try (GenerationMetrics.Timer ignored = getMetrics().time(GenerationMetrics.Phase.PARSE, relativeName(inputFile)))
+            {
+                result = Parsers.parse(content == null ? Files.readAllBytes(inputFile) : content, signaturesOnly);
+            }
+
+            if (!result.isSuccessful())
+            {
+                getMetrics().recordFailure(relativeName(inputFile), "Failed to parse: " + result.getProblems()
+                                                                                          .stream()
+                                                                                          .map(Problem::getVerboseMessage)
+                                                                                          .collect(Collectors.joining("; ")));
+                return null;
+            }
+
+            final CompilationUnit compilationUnit = result.getResult().get();
+            final List<String> types = compilationUnit.findAll(ClassOrInterfaceType.class)
+                                         .stream()
+                                         .map(ClassOrInterfaceType::getNameAsString)
+                                         .distinct()
+                                         .sorted()
+                                         .collect(Collectors.toList());
+
+            final List<String> outputs = generator.generate(inputFile, compilationUnit)
+                                           .stream()
+                                           .map(this::outputName)
+                                           .collect(Collectors.toList());
+            return new GeneratedInput(outputs, types, outputSink.release());
+        }
+        catch (IOException | RuntimeException e)
+        {
+            getMetrics().recordFailure(relativeName(inputFile), e);
+            return null;
+        }
+        finally
+        {
+            outputSink.release();
+        }
+    }
+
+    /**
+     * The inputs of one directory in a run.
+     * <p>
+     * The inputs are generated in parallel like all others, but the files they generate are held back until the whole
+     * directory is done and then written in the order of the inputs, because inputs of one directory can generate the
+     * same file, like a context of a method that several classes declare. The last writer of such a file is the same as
+     * in a sequential run. An unchanged input is still regenerated when it shares a file with a regenerated input.
+     * <p>
+     * Every input is read and compared with the manifest by its own task, so only the inputs in flight are in memory.
+     */
+    private final class PackageRun
+    {
+        private final List<Path>         inputs;
+        private final GenerationManifest previousManifest;
+        private final GenerationManifest manifest;
+        private final Set<String>        failedInputs;
+
+        private final Map<Path, String>          fingerprints    = new ConcurrentHashMap<>();
+        private final Set<Path>                  changedInputs   = ConcurrentHashMap.newKeySet();
+        private final Set<String>                staleOutputs    = ConcurrentHashMap.newKeySet();
+        private final Map<Path, GeneratedInput>  generated       = new ConcurrentHashMap<>();
+        private final AtomicInteger              pendingInputs;
+
+        PackageRun(final List<Path> inputs, final GenerationManifest previousManifest, final GenerationManifest manifest, final Set<String> failedInputs)
+        {
+            this.inputs = inputs;
+            this.previousManifest = previousManifest;
+            this.manifest = manifest;
+            this.failedInputs = failedInputs;
+            this.pendingInputs = new AtomicInteger(inputs.size());
+        }
+
+        /**
+         * Reads an input and generates it if it changed, the last one to finish writes the files of the directory.
+         */
+        void process(final Path inputFile)
+        {
+            try
+            {
+                final Optional<GenerationManifest.Entry> previousEntry = previousManifest.getInput(relativeName(inputFile));
+                final byte[] content = Files.readAllBytes(inputFile);
+                final String fingerprint = GenerationManifest.fingerprint(content);
+                fingerprints.put(inputFile, fingerprint);
+
+                if (!previousEntry.isPresent()
+                      || invalidatedInputs.contains(relativeName(inputFile))
+                      || !previousEntry.get().getFingerprint().equals(fingerprint)
+                      || !previousEntry.get().getOutputs().stream().allMatch(o -> Files.exists(resolveOutput(o))))
+                {
+                    changedInputs.add(inputFile);
+                    previousEntry.ifPresent(e -> staleOutputs.addAll(e.getOutputs()));
+
+                    //Generated from the content that was just read, so archive entries are only decompressed once.
+                    final GeneratedInput result = generateFile(inputFile, content);
+                    if (result != null)
+                    {
+                        generated.put(inputFile, result);
+                    }
+                }
+            }
+            catch (IOException e)
+            {
+                getMetrics().recordFailure(relativeName(inputFile), e);
+            }
+            finally
+            {
+                if (pendingInputs.decrementAndGet() == 0)
+                {
+                    finish();
+                }
+            }
+        }
+
+        /**
+         * Writes the files of the directory in the order of the inputs and records the inputs in the manifest.
+         */
+        @SuppressWarnings("try")
+        private void finish()
+        {
+            final Map<Path, GeneratedInput> results = new LinkedHashMap<>();
+            final Set<String> writtenOutputs = new HashSet<>();
+
+            for (final Path inputFile : inputs)
+            {
+                final String name = relativeName(inputFile);
+                if (!fingerprints.containsKey(inputFile))
+                {
+                    failedInputs.add(name);
+                    continue;
+                }
+
+                GeneratedInput result = generated.get(inputFile);
+                if (!changedInputs.contains(inputFile))
+                {
+                    final GenerationManifest.Entry previousEntry = previousManifest.getInput(name).get();
+                    if (previousEntry.getOutputs().stream().noneMatch(o -> staleOutputs.contains(o) || writtenOutputs.contains(o)))
+                    {
+                        manifest.putInput(name, previousEntry);
+                        skippedInputs.incrementAndGet();
+                        continue;
+                    }
+
+                    result = generateFile(inputFile, null);
+                }
+
+                if (result == null)
+                {
+                    failedInputs.add(name);
+                    continue;
+                }
+
+                results.put(inputFile, result);
+                writtenOutputs.addAll(result.outputs);
+            }
+
+            //A later input overwrites the files of the inputs before it.
+            final Map<Path, Path> writers = new LinkedHashMap<>();
+            results.forEach((inputFile, result) -> result.files.keySet().forEach(file -> writers.put(file, inputFile)));
+
+            for (final Map.Entry<Path, Path> writer : writers.entrySet())
+            {
+                try (GenerationMetrics.Timer ignored = getMetrics().time(GenerationMetrics.Phase.WRITE, writer.getKey().toString()))
+                {
+                    outputSink.getTarget().write(writer.getKey(), results.get(writer.getValue()).files.get(writer.getKey()));
+                }
+                catch (IOException e)
+                {
+                    getMetrics().recordFailure(relativeName(writer.getValue()), e);
+                    failedInputs.add(relativeName(writer.getValue()));
+                }
+            }
+
+            results.forEach((inputFile, result) -> {
+                final String name = relativeName(inputFile);
+                if (failedInputs.contains(name))
+                {
+                    return;
+                }
+
+                String fingerprint = fingerprints.get(inputFile);
+                if (result.outputs.contains(name))
+                {
+                    try
+                    {
+                        fingerprint = fingerprint(inputFile);
+                    }
+                    catch (IOException e)
+                    {
+                        fingerprint = "";
+                    }
+                }
+
+                manifest.putInput(name, new GenerationManifest.Entry(fingerprint, result.outputs, result.types));
+                generatedInputs.incrementAndGet();
+            });
+        }
+    }
+
+    /**
+     * The files an input generated, before they are written.
+     */
+    private static final class GeneratedInput
+    {
+        private final List<String>      outputs;
+        private final List<String>      types;
+        private final Map<Path, String> files;
+
+        GeneratedInput(final List<String> outputs, final List<String> types, final Map<Path, String> files)
+        {
+            this.outputs = outputs;
+            this.types = types;
+            this.files = files;
+        }
+    }
+
+    /**
+     * Holds back the files that are written on a thread while a capture is open, and passes everything else to the
+     * output sink of the configuration.
+     */
+    private static final class CapturingOutputSink implements OutputSink
+    {
+        private final OutputSink                     target;
+        private final ThreadLocal<Map<Path, String>> captured = new ThreadLocal<>();
+
+        CapturingOutputSink(final OutputSink target)
+        {
+            this.target = target;
+        }
+
+        OutputSink getTarget()
+        {
+            return target;
+        }
+
+        void capture()
+        {
+            captured.set(new LinkedHashMap<>());
+        }
+
+        /**
+         * Closes the capture of the current thread.
+         *
+         * @return the captured files in the order they were written, or an empty map if no capture was open.
+         */
+        Map<Path, String> release()
+        {
+            final Map<Path, String> files = captured.get();
+            captured.remove();
+            return files == null ? Collections.emptyMap() : files;
+        }
+
+        @Override
+        public boolean write(final Path target, final String source) throws IOException
+        {
+            final Map<Path, String> files = captured.get();
+            if (files == null)
+            {
+                return this.target.write(target, source);
+            }
+
+            return !source.equals(files.put(target, source));
+        }
+
+        @Override
+        public void delete(final Path target) throws IOException
+        {
+            this.target.delete(target);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.ldtteam.lpg;
+
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.type.TypeParameter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Assigns one shared context class to all methods whose contexts would be the same: the same context package, type
+ * parameters and mapped parameters.
+ * <p>
+ * A shared context is named after its parameters, like the overloads are: StateAsIBlockStateAndPosAsIBlockCoordinateContext,
+ * or EmptyContext without parameters. Type parameters and their bounds are part of the name, like ValueAsTOfTExtendsNumberContext,
+ * so the name only depends on the signature and every input, every thread and every run picks the same name regardless of
+ * the order the methods are generated in. Only if two different types spell the same name, like Map&lt;K, V&gt; and KVMap, the
+ * name is taken by a different signature and the method keeps its own context.
+ */
+public class ContextRegistry
+{
+    private final Map<String, String> namesBySignature = new ConcurrentHashMap<>();
+    private final Map<String, String> signaturesByName = new ConcurrentHashMap<>();
+
+    /**
+     * @param parameters        the mapped parameters of the context.
+     * @param methodContextName the name of the context of the method on its own.
+     * @return the name of the context class to use for the given signature.
+     */
+    public String getContextName(final String contextPackage, final List<TypeParameter> typeParameters, final List<Parameter> parameters, final String methodContextName)
+    {
+        final String signature = contextPackage
+                                   + typeParameters.stream().map(TypeParameter::asString).collect(Collectors.joining(", ", "<", ">"))
+                                   + parameters.stream().map(p -> p.getType().asString() + " " + p.getNameAsString()).collect(Collectors.joining(", ", "(", ")"));
+
+        return namesBySignature.computeIfAbsent(signature, s -> {
+            final String name = getSharedName(typeParameters, parameters);
+            final String owner = signaturesByName.putIfAbsent(contextPackage + "." + name, s);
+            return owner == null || owner.equals(s) ? name : methodContextName;
+        });
+    }
+
+    private static String getSharedName(final List<TypeParameter> typeParameters, final List<Parameter> parameters)
+    {
+        final String parameterName = parameters.isEmpty() ? "Empty" : parameters.stream()
+                                                                        .map(p -> Generator.Capitalize(p.getNameAsString()) + "As" + Generator.Capitalize(Generator.getCleanedTypeName(p.getType())))
+                                                                        .collect(Collectors.joining("And"));
+        if (typeParameters.isEmpty())
+        {
+            return parameterName + "Context";
+        }
+
+        return parameterName + typeParameters.stream()
+                                 .map(t -> Generator.Capitalize(t.getNameAsString()) + t.getTypeBound()
+                                                                                          .stream()
+                                                                                          .map(b -> Generator.Capitalize(Generator.getCleanedTypeName(b)))
+                                                                                          .collect(Collectors.joining("And", t.getTypeBound().isEmpty() ? "" : "Extends", "")))
+                                 .collect(Collectors.joining("And", "Of", "Context"));
+    }
+}
@@ -0,0 +1,180 @@
+package com.ldtteam.lpg;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes generated units as UTF-8 files.
+ * <p>
+ * Units are encoded into a per thread buffer and compared against the existing file first, identical files are not
+ * touched so their modification time stays the same. Changed files are written to a temporary file next to the target
+ * and moved over it, so readers never observe a partially written file.
+ */
+public class FileSystemOutputSink implements OutputSink
+{
+    private final ThreadLocal<Buffers> buffers = ThreadLocal.withInitial(Buffers::new);
+
+    private final AtomicLong writtenFiles = new AtomicLong();
+    private final AtomicLong unchangedFiles = new AtomicLong();
+    private final AtomicLong deletedFiles = new AtomicLong();
+    private final AtomicLong writtenBytes = new AtomicLong();
+
+    @Override
+    public boolean write(final Path target, final String source) throws IOException
+    {
+        final Buffers threadBuffers = buffers.get();
+        final ByteBuffer content = threadBuffers.encode(source);
+
+        if (hasContent(target, content, threadBuffers))
+        {
+            unchangedFiles.incrementAndGet();
+            return false;
+        }
+
+        Files.createDirectories(target.getParent());
+        final Path temporaryFile = Files.createTempFile(target.getParent(), "." + target.getFileName(), ".tmp");
+        try
+        {
+            final int size = content.remaining();
+            try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+            {
+                while (content.hasRemaining())
+                {
+                    channel.write(content);
+                }
+            }
+
+            try
+            {
+                Files.move(temporaryFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            catch (AtomicMoveNotSupportedException e)
+            {
+                Files.move(temporaryFile, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            writtenFiles.incrementAndGet();
+            writtenBytes.addAndGet(size);
+            return true;
+        }
+        finally
+        {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    @Override
+    public void delete(final Path target) throws IOException
+    {
+        if (Files.deleteIfExists(target))
+        {
+            deletedFiles.incrementAndGet();
+        }
+    }
+
+    public long getWrittenFiles()
+    {
+        return writtenFiles.get();
+    }
+
+    public long getUnchangedFiles()
+    {
+        return unchangedFiles.get();
+    }
+
+    public long getDeletedFiles()
+    {
+        return deletedFiles.get();
+    }
+
+    public long getWrittenBytes()
+    {
+        return writtenBytes.get();
+    }
+
+    private static boolean hasContent(final Path target, final ByteBuffer content, final Buffers threadBuffers) throws IOException
+    {
+        if (!Files.isRegularFile(target))
+        {
+            return false;
+        }
+
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.READ))
+        {
+            if (channel.size() != content.remaining())
+            {
+                return false;
+            }
+
+            final ByteBuffer existing = threadBuffers.comparisonBuffer(content.remaining());
+            while (existing.hasRemaining() && channel.read(existing) >= 0)
+            {
+                //Keep reading until the buffer is filled.
+            }
+            existing.flip();
+
+            return existing.equals(content);
+        }
+    }
+
+    private static class Buffers
+    {
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                                                 .onMalformedInput(CodingErrorAction.REPLACE)
+                                                 .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        private ByteBuffer output = ByteBuffer.allocate(64 * 1024);
+        private ByteBuffer comparison = ByteBuffer.allocate(64 * 1024);
+
+        private ByteBuffer encode(final String source) throws CharacterCodingException
+        {
+            final int maxSize = (int) Math.ceil(source.length() * (double) encoder.maxBytesPerChar());
+            if (output.capacity() < maxSize)
+            {
+                output = ByteBuffer.allocate(maxSize);
+            }
+
+            output.clear();
+            encoder.reset();
+
+            CoderResult result = encoder.encode(CharBuffer.wrap(source), output, true);
+            if (!result.isError())
+            {
+                result = encoder.flush(output);
+            }
+
+            if (result.isError())
+            {
+                result.throwException();
+            }
+
+            output.flip();
+            return output;
+        }
+
+        private ByteBuffer comparisonBuffer(final int size)
+        {
+            if (comparison.capacity() < size)
+            {
+                comparison = ByteBuffer.allocate(size);
+            }
+
+            comparison.clear();
+            comparison.limit(size);
+            return comparison;
+        }
+    }
+}
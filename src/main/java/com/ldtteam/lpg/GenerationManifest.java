@@ -0,0 +1,238 @@
+package com.ldtteam.lpg;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * On-disk record of the previous generation run.
+ * Stores the fingerprint of every input, the mapping and the generator settings next to the files each input produced,
+ * so inputs whose fingerprints still match can be skipped on the next run. The types an input uses are stored as well,
+ * so a change of the mapping only has to regenerate the inputs that use a changed type.
+ * <p>
+ * Inputs are stored relative to the source root, outputs relative to the output root, or the source root if there is
+ * none. Both use '/' as separator.
+ */
+public class GenerationManifest
+{
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private String mappingFingerprint = "";
+    private String settingsFingerprint = "";
+    private Map<String, Entry> inputs = new ConcurrentHashMap<>();
+
+    public GenerationManifest()
+    {
+    }
+
+    public GenerationManifest(final String mappingFingerprint, final String settingsFingerprint)
+    {
+        this.mappingFingerprint = mappingFingerprint;
+        this.settingsFingerprint = settingsFingerprint;
+    }
+
+    public static GenerationManifest load(final Path manifestFile) throws IOException
+    {
+        if (!Files.exists(manifestFile))
+        {
+            return new GenerationManifest();
+        }
+
+        try (Reader reader = Files.newBufferedReader(manifestFile, StandardCharsets.UTF_8))
+        {
+            final GenerationManifest manifest = GSON.fromJson(reader, GenerationManifest.class);
+            if (manifest == null)
+            {
+                return new GenerationManifest();
+            }
+
+            manifest.inputs = new ConcurrentHashMap<>(manifest.inputs);
+            return manifest;
+        }
+    }
+
+    public void save(final Path manifestFile) throws IOException
+    {
+        final GenerationManifest sorted = new GenerationManifest(mappingFingerprint, settingsFingerprint);
+        sorted.inputs = new TreeMap<>(inputs);
+
+        try (Writer writer = Files.newBufferedWriter(manifestFile, StandardCharsets.UTF_8))
+        {
+            GSON.toJson(sorted, writer);
+        }
+    }
+
+    public static String fingerprint(final byte[] content)
+    {
+        try
+        {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            final StringBuilder builder = new StringBuilder(digest.length * 2);
+            for (final byte b : digest)
+            {
+                builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+
+            return builder.toString();
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+    }
+
+    public static String fingerprint(final String content)
+    {
+        return fingerprint(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Fingerprint of the content of the given files, the fingerprint of the content itself for a single file.
+     */
+    public static String fingerprint(final List<Path> files) throws IOException
+    {
+        final StringBuilder fingerprints = new StringBuilder();
+        for (final Path file : files)
+        {
+            fingerprints.append(fingerprint(Files.readAllBytes(file)));
+        }
+
+        return files.size() == 1 ? fingerprints.toString() : fingerprint(fingerprints.toString());
+    }
+
+    /**
+     * Combines the manifests of the shards of one run into the manifest of an unsharded run.
+     *
+     * @throws IllegalArgumentException if the shards were generated with different mappings or settings, or if two shards
+     *                                  recorded the same input or wrote the same output.
+     */
+    public static GenerationManifest merge(final List<Path> shardFiles) throws IOException
+    {
+        GenerationManifest merged = null;
+        final Map<String, Path> inputShards = new HashMap<>();
+        final Map<String, Path> outputShards = new HashMap<>();
+
+        for (final Path shardFile : shardFiles)
+        {
+            if (!Files.exists(shardFile))
+            {
+                throw new IllegalArgumentException("Missing shard manifest: " + shardFile);
+            }
+
+            final GenerationManifest shard = load(shardFile);
+            if (merged == null)
+            {
+                merged = new GenerationManifest(shard.mappingFingerprint, shard.settingsFingerprint);
+            }
+            else if (!merged.isCompatible(shard.mappingFingerprint, shard.settingsFingerprint))
+            {
+                throw new IllegalArgumentException(shardFile + " was generated with a different mapping or different settings than " + shardFiles.get(0));
+            }
+
+            for (final Map.Entry<String, Entry> input : shard.inputs.entrySet())
+            {
+                final Path inputShard = inputShards.putIfAbsent(input.getKey(), shardFile);
+                if (inputShard != null)
+                {
+                    throw new IllegalArgumentException("Input " + input.getKey() + " is recorded by " + inputShard + " and " + shardFile);
+                }
+
+                for (final String output : input.getValue().getOutputs())
+                {
+                    final Path outputShard = outputShards.putIfAbsent(output, shardFile);
+                    if (outputShard != null && !outputShard.equals(shardFile))
+                    {
+                        throw new IllegalArgumentException("Output " + output + " is written by " + outputShard + " and " + shardFile);
+                    }
+                }
+
+                merged.putInput(input.getKey(), input.getValue());
+            }
+        }
+
+        return merged == null ? new GenerationManifest() : merged;
+    }
+
+    /**
+     * Checks if the outputs of this manifest were generated with the given mapping and settings.
+     */
+    public boolean isCompatible(final String mappingFingerprint, final String settingsFingerprint)
+    {
+        return this.mappingFingerprint.equals(mappingFingerprint) && this.settingsFingerprint.equals(settingsFingerprint);
+    }
+
+    public String getMappingFingerprint()
+    {
+        return mappingFingerprint;
+    }
+
+    public String getSettingsFingerprint()
+    {
+        return settingsFingerprint;
+    }
+
+    public Map<String, Entry> getInputs()
+    {
+        return inputs;
+    }
+
+    public Optional<Entry> getInput(final String input)
+    {
+        return Optional.ofNullable(inputs.get(input));
+    }
+
+    public void putInput(final String input, final Entry entry)
+    {
+        inputs.put(input, entry);
+    }
+
+    public static class Entry
+    {
+        private String fingerprint;
+        private List<String> outputs;
+        private List<String> types;
+
+        public Entry(final String fingerprint, final List<String> outputs)
+        {
+            this(fingerprint, outputs, null);
+        }
+
+        /**
+         * @param types the simple names of the types the input uses, or null if they are not known.
+         */
+        public Entry(final String fingerprint, final List<String> outputs, final List<String> types)
+        {
+            this.fingerprint = fingerprint;
+            this.outputs = outputs;
+            this.types = types;
+        }
+
+        public String getFingerprint()
+        {
+            return fingerprint;
+        }
+
+        public List<String> getOutputs()
+        {
+            return outputs;
+        }
+
+        /**
+         * @return the simple names of the types the input uses, or null if they are not known.
+         */
+        public List<String> getTypes()
+        {
+            return types;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.ldtteam.lpg;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timings and counters of a generation run.
+ * <p>
+ * Phases nest (a builder contains its contexts, a write contains the printing), each phase only records the time that is
+ * not spent in a phase nested in it, so the phase times of a thread add up to its time spent generating. Every timed
+ * section is also emitted as a JFR event. The run can be written as a JSON or CSV report.
+ */
+public class GenerationMetrics
+{
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+
+    public enum Phase
+    {
+        MAPPING_LOAD,
+        PARSE,
+        INTERFACE,
+        BUILDER,
+        CONTEXT,
+        PRINT,
+        WRITE
+    }
+
+    public enum Counter
+    {
+        INPUTS_GENERATED,
+        INPUTS_SKIPPED,
+        INPUTS_FAILED,
+        CLASSES,
+        METHODS_KEPT,
+        METHODS_FILTERED,
+        OVERLOAD_GROUPS,
+        CONTEXT_CLASSES,
+        FILES_WRITTEN,
+        FILES_UNCHANGED,
+        FILES_PRUNED,
+        BYTES_WRITTEN
+    }
+
+    private final Instant startedAt = Instant.now();
+    private final long startTime = System.nanoTime();
+
+    private final Map<Phase, LongAdder> phaseNanos = new EnumMap<>(Phase.class);
+    private final Map<Phase, LongAdder> phaseCounts = new EnumMap<>(Phase.class);
+    private final Map<Counter, LongAdder> counters = new EnumMap<>(Counter.class);
+    private final Queue<Failure> failures = new ConcurrentLinkedQueue<>();
+
+    private final ThreadLocal<Timer> currentTimer = new ThreadLocal<>();
+
+    public GenerationMetrics()
+    {
+        for (final Phase phase : Phase.values())
+        {
+            phaseNanos.put(phase, new LongAdder());
+            phaseCounts.put(phase, new LongAdder());
+        }
+
+        for (final Counter counter : Counter.values())
+        {
+            counters.put(counter, new LongAdder());
+        }
+    }
+
+    /**
+     * Starts timing a phase on the current thread, close the timer to end it.
+     *
+     * @param subject what the phase works on, for the JFR event.
+     */
+    public Timer time(final Phase phase, final String subject)
+    {
+        return new Timer(phase, subject);
+    }
+
+    public void count(final Counter counter)
+    {
+        counters.get(counter).increment();
+    }
+
+    public void count(final Counter counter, final long amount)
+    {
+        counters.get(counter).add(amount);
+    }
+
+    public long getCount(final Counter counter)
+    {
+        return counters.get(counter).sum();
+    }
+
+    public long getNanos(final Phase phase)
+    {
+        return phaseNanos.get(phase).sum();
+    }
+
+    /**
+     * Records an input that failed to generate and reports it on a single line.
+     */
+    public void recordFailure(final String input, final Throwable error)
+    {
+        recordFailure(input, error.getClass().getSimpleName() + ": " + error.getMessage());
+    }
+
+    public void recordFailure(final String input, final String error)
+    {
+        failures.add(new Failure(input, error));
+        count(Counter.INPUTS_FAILED);
+        System.err.println("Failed to generate " + input + ": " + error.split("\\R", 2)[0]);
+    }
+
+    /**
+     * Writes the report of the run, as CSV if the file name ends with .csv and as JSON otherwise.
+     */
+    public void writeReport(final Path reportFile) throws IOException
+    {
+        try (Writer writer = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8))
+        {
+            if (reportFile.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv"))
+            {
+                writeCsv(writer);
+            }
+            else
+            {
+                GSON.toJson(createReport(), writer);
+            }
+        }
+    }
+
+    private Map<String, Object> createReport()
+    {
+        final Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", startedAt.toString());
+        report.put("wallTimeMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+
+        final Map<String, Object> phases = new LinkedHashMap<>();
+        for (final Phase phase : Phase.values())
+        {
+            final Map<String, Object> phaseReport = new LinkedHashMap<>();
+            phaseReport.put("count", phaseCounts.get(phase).sum());
+            phaseReport.put("millis", TimeUnit.NANOSECONDS.toMillis(getNanos(phase)));
+            phases.put(phase.name().toLowerCase(Locale.ROOT), phaseReport);
+        }
+        report.put("phases", phases);
+
+        final Map<String, Object> counterReport = new LinkedHashMap<>();
+        for (final Counter counter : Counter.values())
+        {
+            counterReport.put(counter.name().toLowerCase(Locale.ROOT), getCount(counter));
+        }
+        report.put("counters", counterReport);
+        report.put("failures", new ArrayList<>(failures));
+
+        return report;
+    }
+
+    private void writeCsv(final Writer writer) throws IOException
+    {
+        writer.write("kind,name,count,millis\n");
+        writer.write("run,wall_time,," + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) + "\n");
+        for (final Phase phase : Phase.values())
+        {
+            writer.write("phase," + phase.name().toLowerCase(Locale.ROOT) + "," + phaseCounts.get(phase).sum() + "," + TimeUnit.NANOSECONDS.toMillis(getNanos(phase)) + "\n");
+        }
+
+        for (final Counter counter : Counter.values())
+        {
+            writer.write("counter," + counter.name().toLowerCase(Locale.ROOT) + "," + getCount(counter) + ",\n");
+        }
+
+        for (final Failure failure : failures)
+        {
+            writer.write("failure,\"" + failure.input.replace("\"", "\"\"") + "\",,\n");
+        }
+    }
+
+    /**
+     * A running phase of the current thread.
+     */
+    public class Timer implements AutoCloseable
+    {
+        private final Phase phase;
+        private final Timer parent;
+        private final PhaseEvent event = new PhaseEvent();
+        private final long start;
+        private long nestedNanos = 0;
+
+        private Timer(final Phase phase, final String subject)
+        {
+            this.phase = phase;
+            this.parent = currentTimer.get();
+            currentTimer.set(this);
+
+            if (event.isEnabled())
+            {
+                event.phase = phase.name();
+                event.subject = subject;
+                event.begin();
+            }
+            start = System.nanoTime();
+        }
+
+        @Override
+        public void close()
+        {
+            final long elapsed = System.nanoTime() - start;
+            event.commit();
+
+            currentTimer.set(parent);
+            if (parent != null)
+            {
+                parent.nestedNanos += elapsed;
+            }
+
+            phaseNanos.get(phase).add(elapsed - nestedNanos);
+            phaseCounts.get(phase).increment();
+        }
+    }
+
+    private static class Failure
+    {
+        private final String input;
+        private final String error;
+
+        private Failure(final String input, final String error)
+        {
+            this.input = input;
+            this.error = error;
+        }
+    }
+
+    @Name("com.ldtteam.lpg.Phase")
+    @Label("Generation Phase")
+    @Category("JVoxelizer Generator")
+    @Description("A phase of the source generation")
+    static class PhaseEvent extends Event
+    {
+        @Label("Phase")
+        private String phase;
+
+        @Label("Subject")
+        private String subject;
+    }
+}
@@ -0,0 +1,961 @@
+package com.ldtteam.lpg;
+
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ast.*;
+import com.github.javaparser.ast.body.*;
+import com.github.javaparser.ast.expr.AssignExpr;
+import com.github.javaparser.ast.expr.BooleanLiteralExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.FieldAccessExpr;
+import com.github.javaparser.ast.expr.IntegerLiteralExpr;
+import com.github.javaparser.ast.expr.LambdaExpr;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.MethodReferenceExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.expr.NullLiteralExpr;
+import com.github.javaparser.ast.expr.SimpleName;
+import com.github.javaparser.ast.expr.ThisExpr;
+import com.github.javaparser.ast.expr.TypeExpr;
+import com.github.javaparser.ast.stmt.BlockStmt;
+import com.github.javaparser.ast.stmt.ExpressionStmt;
+import com.github.javaparser.ast.stmt.ForEachStmt;
+import com.github.javaparser.ast.stmt.ReturnStmt;
+import com.github.javaparser.ast.type.ArrayType;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import com.github.javaparser.ast.type.PrimitiveType;
+import com.github.javaparser.ast.type.Type;
+import com.github.javaparser.ast.type.TypeParameter;
+import com.github.javaparser.ast.type.VoidType;
+import com.github.javaparser.ast.type.WildcardType;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Generates the interface, the logic builder and the contexts of the classes of a source.
+ * <p>
+ * A generator only works with the state of its configuration, which is copied on construction. Generators with
+ * different configurations can run in parallel, one generator can be used by several threads as long as its mapping
+ * and output sink are thread safe, which the provided ones are.
+ */
+public class Generator
+{
+    static final AstTemplate<ClassOrInterfaceType> FUNCTION_PIPELINE_TYPE = AstTemplate.type("List<Function<$0, $1>>");
+    static final AstTemplate<ClassOrInterfaceType> FUNCTION_COMPONENT_TYPE = AstTemplate.type("Function<$0, $1>");
+    private static final AstTemplate<ClassOrInterfaceType> PRIMITIVE_PIPELINE_TYPE = AstTemplate.type("List<$0>");
+    private static final AstTemplate<ClassOrInterfaceType> CONSUMER_PIPELINE_TYPE = AstTemplate.type("List<Consumer<$0>>");
+    private static final AstTemplate<ClassOrInterfaceType> CONSUMER_COMPONENT_TYPE = AstTemplate.type("Consumer<$0>");
+    static final AstTemplate<ClassOrInterfaceType> TYPED_CONTEXT_TYPE = AstTemplate.type("TypedPipelineElementContext<$0, $1, O, I>");
+    private static final AstTemplate<ClassOrInterfaceType> VOID_CONTEXT_TYPE = AstTemplate.type("VoidPipelineElementContext<$0, O, I>");
+    static final AstTemplate<Expression> PIPELINE_INITIALIZER = AstTemplate.expression("new ArrayList<>()");
+    static final AstTemplate<BlockStmt> PIPELINE_REGISTRATION_BODY = AstTemplate.block("{ \n"
+                                                                                                + "   this.$0Pipeline.addAll(Arrays.asList(components));\n"
+                                                                                                + "   return (C) this;\n"
+                                                                                                + "}");
+    private static final AstTemplate<BlockStmt> FROZEN_PIPELINE_REGISTRATION_BODY = AstTemplate.block("{ \n"
+                                                                                                       + "   Collections.addAll(this.$0Pipeline, components);\n"
+                                                                                                       + "   return (C) this;\n"
+                                                                                                       + "}");
+    private static final AstTemplate<BlockStmt> FREEZE_PIPELINE_BODY = AstTemplate.block("{\n"
+                                                                                          + "   return ($2[]) this.$0Pipeline.toArray(new $1[this.$0Pipeline.size()]);\n"
+                                                                                          + "}");
+    private static final AstTemplate<BlockStmt> COMPOSE_PIPELINE_BODY = AstTemplate.block("{\n"
+                                                                                           + "   final $1[] pipeline = freeze$0Pipeline();\n"
+                                                                                           + "   switch (pipeline.length) {\n"
+                                                                                           + "      case 0:\n"
+                                                                                           + "         return context -> {};\n"
+                                                                                           + "      case 1:\n"
+                                                                                           + "         return pipeline[0];\n"
+                                                                                           + "      case 2:\n"
+                                                                                           + "         final $1 first = pipeline[0];\n"
+                                                                                           + "         final $1 second = pipeline[1];\n"
+                                                                                           + "         return context -> {\n"
+                                                                                           + "            first.accept(context);\n"
+                                                                                           + "            second.accept(context);\n"
+                                                                                           + "         };\n"
+                                                                                           + "      default:\n"
+                                                                                           + "         return context -> {\n"
+                                                                                           + "            for (int i = 0; i < pipeline.length; i++) {\n"
+                                                                                           + "               pipeline[i].accept(context);\n"
+                                                                                           + "            }\n"
+                                                                                           + "         };\n"
+                                                                                           + "   }\n"
+                                                                                           + "}");
+    private static final AstTemplate<ClassOrInterfaceType> CONTEXT_POOL_TYPE = AstTemplate.type("ThreadLocal<$0>");
+    private static final AstTemplate<BlockStmt> CONTEXT_POOL_BODY = AstTemplate.block("{\n"
+                                                                                       + "   final $0 context = POOL.get();\n"
+                                                                                       + "   if (context.inUse)\n"
+                                                                                       + "   {\n"
+                                                                                       + "      return new $0();\n"
+                                                                                       + "   }\n"
+                                                                                       + "   context.inUse = true;\n"
+                                                                                       + "   return context;\n"
+                                                                                       + "}");
+    private static final AstTemplate<BlockStmt> GENERIC_CONTEXT_POOL_BODY = AstTemplate.block("{\n"
+                                                                                               + "   final $0 context = ($0) POOL.get();\n"
+                                                                                               + "   if (context.inUse)\n"
+                                                                                               + "   {\n"
+                                                                                               + "      return new $0();\n"
+                                                                                               + "   }\n"
+                                                                                               + "   context.inUse = true;\n"
+                                                                                               + "   return context;\n"
+                                                                                               + "}");
+    private static final List<String> BENCHMARK_ANNOTATIONS = Arrays.asList("@State(Scope.Thread)",
+      "@BenchmarkMode(Mode.Throughput)",
+      "@OutputTimeUnit(TimeUnit.MICROSECONDS)",
+      "@Warmup(iterations = 3, time = 1)",
+      "@Measurement(iterations = 5, time = 1)",
+      "@Fork(1)",
+      "@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+    private static final AstTemplate<BlockStmt> BENCHMARK_STUB_BUILD_BODY = AstTemplate.block("{\n"
+                                                                                               + "   return null;\n"
+                                                                                               + "}");
+    private static final AstTemplate<BlockStmt> BENCHMARK_SETUP_BODY = AstTemplate.block("{\n"
+                                                                                          + "   final StubBuilder builder = new StubBuilder();\n"
+                                                                                          + "   for (int i = 0; i < elements; i++) {\n"
+                                                                                          + "   }\n"
+                                                                                          + "}");
+    private static final AstTemplate<BlockStmt> BENCHMARK_FROZEN_PIPELINE_BODY = AstTemplate.block("{\n"
+                                                                                                    + "   for (final $0 element : this.$1Pipeline) {\n"
+                                                                                                    + "   }\n"
+                                                                                                    + "}");
+    private static final AstTemplate<BlockStmt> BENCHMARK_COMPOSED_PIPELINE_BODY = AstTemplate.block("{\n"
+                                                                                                      + "   this.$0Pipeline.accept(null);\n"
+                                                                                                      + "}");
+
+    private static final Map<PrimitiveType.Primitive, String> PRIMITIVE_FUNCTIONS = new EnumMap<>(PrimitiveType.Primitive.class);
+
+    static
+    {
+        PRIMITIVE_FUNCTIONS.put(PrimitiveType.Primitive.BOOLEAN, "java.util.function.Predicate");
+        PRIMITIVE_FUNCTIONS.put(PrimitiveType.Primitive.INT, "java.util.function.ToIntFunction");
+        PRIMITIVE_FUNCTIONS.put(PrimitiveType.Primitive.LONG, "java.util.function.ToLongFunction");
+        PRIMITIVE_FUNCTIONS.put(PrimitiveType.Primitive.DOUBLE, "java.util.function.ToDoubleFunction");
+    }
+
+    private final GeneratorConfiguration configuration;
+    private final ContextRegistry        contextRegistry = new ContextRegistry();
+    private final Mapping mapping;
+    private final OutputSink outputSink;
+    private final GenerationMetrics metrics;
+
+    public Generator(final GeneratorConfiguration configuration)
+    {
+        if (configuration.getBenchmarkRoot() != null && !configuration.isFrozenPipelines())
+        {
+            throw new IllegalArgumentException("Benchmarks run the frozen pipelines, they need frozen pipelines.");
+        }
+
+        this.configuration = new GeneratorConfiguration(configuration);
+        this.mapping = configuration.getMapping();
+        this.outputSink = configuration.getOutputSink();
+        this.metrics = configuration.getMetrics();
+    }
+
+    /**
+     * @return a copy of the configuration of this generator.
+     */
+    public GeneratorConfiguration getConfiguration()
+    {
+        return new GeneratorConfiguration(configuration);
+    }
+
+    /**
+     * Parses the given source file and generates its classes.
+     *
+     * @param signaturesOnly if true, method and initializer bodies are dropped before parsing.
+     * @return the files that were written.
+     * @throws ParseProblemException if the source does not parse.
+     */
+    @SuppressWarnings("try")
+    public List<Path> generate(final Path inputFile, final boolean signaturesOnly) throws IOException
+    {
+        final ParseResult<CompilationUnit> result;
+        try (GenerationMetrics.Timer ignored = metrics.time(GenerationMetrics.Phase.PARSE, inputFile.toString()))
+        {
+            result = Parsers.parse(inputFile, signaturesOnly);
+        }
+
+        if (!result.isSuccessful())
+        {
+            throw new ParseProblemException(result.getProblems());
+        }
+
+        return generate(inputFile, result.getResult().get());
+    }
+
+    /**
+     * Generates the interface, builder and contexts for every class in the given source.
+     * Failing outputs do not stop the remaining ones from being generated, the first failure is rethrown at the end.
+     * The classes are moved out of the given source, it can only be generated once.
+     *
+     * @param inputFile the file the source was read from, the outputs are placed next to it without an output root.
+     * @return the files that were written.
+     */
+    @SuppressWarnings("try")
+    public List<Path> generate(final Path inputFile, final CompilationUnit source) throws IOException
+    {
+        final List<Path> outputFiles = new ArrayList<>();
+        final List<IOException> failures = new ArrayList<>();
+
+        new ArrayList<>(source.getChildNodes()).stream().filter(n -> n instanceof ClassOrInterfaceDeclaration).forEach(d -> {
+            final List<String> validMethodNames = configuration.getWhitelist().getValidMethodNames(source, (ClassOrInterfaceDeclaration) d);
+            metrics.count(GenerationMetrics.Counter.CLASSES);
+            try (GenerationMetrics.Timer ignored = metrics.time(GenerationMetrics.Phase.INTERFACE, ((ClassOrInterfaceDeclaration) d).getNameAsString()))
+            {
+                outputFiles.add(generateInterface(inputFile, source, (ClassOrInterfaceDeclaration) d, validMethodNames));
+            }
+            catch (IOException e)
+            {
+                failures.add(e);
+            }
+            try (GenerationMetrics.Timer ignored = metrics.time(GenerationMetrics.Phase.BUILDER, ((ClassOrInterfaceDeclaration) d).getNameAsString()))
+            {
+                outputFiles.addAll(generateLogicBuilder(inputFile, source, (ClassOrInterfaceDeclaration) d, validMethodNames));
+            }
+            catch (IOException e)
+            {
+                failures.add(e);
+            }
+        });
+
+        rethrowFirst(failures);
+        return outputFiles;
+    }
+
+    public Path generateInterface(final Path inputFile, final CompilationUnit source, final ClassOrInterfaceDeclaration sourceClass, final List<String> validMethodNames)
+      throws IOException
+    {
+        final CompilationUnit target = generateCompileUnit(getSourcePackage(source) + configuration.getInterfacePackage());
+        addImport(target, "com.ldtteam.jvoxelizer.core.logic.*");
+        final ClassOrInterfaceDeclaration i = target.addInterface((sourceClass.isInterface() ?  "" : "I") + sourceClass.getNameAsString(), Modifier.Keyword.PUBLIC);
+
+        i.addTypeParameter(parseTypeParameter("I"));
+
+        final ClassOrInterfaceType extended = getGeneratedSuperType(source, sourceClass);
+        if (extended != null)
+        {
+            i.addExtendedType(parseClassOrInterfaceType("I" + extended.getName() + "<I>"));
+        }
+        else
+        {
+            i.addExtendedType(parseClassOrInterfaceType("IInstancedObject<I>"));
+        }
+
+        sourceClass.getImplementedTypes().forEach(i::addExtendedType);
+
+        final List<MethodDeclaration> methodDeclarations = new ArrayList<>(sourceClass.getMethods());
+
+        methodDeclarations.removeIf(m -> m.getModifiers().contains(Modifier.privateModifier()) || m.getModifiers().contains(Modifier.staticModifier()));
+        methodDeclarations.removeIf(m -> m.getNameAsString().startsWith("set"));
+        methodDeclarations.removeIf(m -> !validMethodNames.contains("*") && !validMethodNames.contains(m.getNameAsString()));
+        removeInheritedMethods(source, sourceClass, methodDeclarations);
+
+        methodDeclarations.forEach(m -> {
+            final MethodDeclaration mNew = i.addMethod(m.getNameAsString()).setType(processType(m.getType())).setBody(null);
+
+            m.getTypeParameters().forEach(mNew::addTypeParameter);
+            m.getParameters().stream().map(this::processMethodParameter).forEach(mNew::addParameter);
+        });
+
+        return export(inputFile, source, target, (sourceClass.isInterface() ?  "" : "I") + sourceClass.getNameAsString());
+    }
+
+    /**
+     * The extended class of a source class, if its interface and builder are generated. Without a type graph every
+     * extended class is assumed to be generated, with one only the classes of the graph are.
+     */
+    private ClassOrInterfaceType getGeneratedSuperType(final CompilationUnit source, final ClassOrInterfaceDeclaration sourceClass)
+    {
+        if (sourceClass.getExtendedTypes().isEmpty())
+        {
+            return null;
+        }
+
+        final TypeGraph typeGraph = configuration.getTypeGraph();
+        final String qualifiedName = getSourcePackage(source) + "." + sourceClass.getNameAsString();
+        if (typeGraph != null && typeGraph.contains(qualifiedName) && typeGraph.getSuperType(qualifiedName) == null)
+        {
+            return null;
+        }
+
+        return sourceClass.getExtendedTypes(0);
+    }
+
+    /**
+     * Removes the methods that a generated ancestor already declares, if there is a type graph.
+     * <p>
+     * Only whole overload groups are removed. The primary method and the overload names of a group are chosen among the
+     * methods of the class, so a group that keeps one new overload keeps its inherited overloads as well, and generates
+     * the same builder methods and contexts as the ancestor for them.
+     */
+    private void removeInheritedMethods(final CompilationUnit source, final ClassOrInterfaceDeclaration sourceClass, final List<MethodDeclaration> methodDeclarations)
+    {
+        final TypeGraph typeGraph = configuration.getTypeGraph();
+        if (typeGraph == null)
+        {
+            return;
+        }
+
+        final Set<String> inheritedMethods = typeGraph.getInheritedMethods(getSourcePackage(source) + "." + sourceClass.getNameAsString(), configuration.getWhitelist());
+        final Set<String> declaredNames = methodDeclarations.stream()
+                                            .filter(m -> !inheritedMethods.contains(TypeGraph.getSignature(m)))
+                                            .map(MethodDeclaration::getNameAsString)
+                                            .collect(Collectors.toSet());
+        methodDeclarations.removeIf(m -> !declaredNames.contains(m.getNameAsString()));
+    }
+
+    private Parameter processMethodParameter(final Parameter parameter)
+    {
+        return new Parameter(processType(parameter.getType()), parameter.getName());
+    }
+
+    /**
+     * Maps a source type for use in a generated unit, copying it if it stays the same so it keeps its place in the source.
+     */
+    private Type processType(final Type type)
+    {
+        final Type processed = mapping.processTypeForMapping(type);
+        return processed == type ? type.clone() : processed;
+    }
+
+    @SuppressWarnings("try")
+    public List<Path> generateLogicBuilder(final Path inputFile, final CompilationUnit source, final ClassOrInterfaceDeclaration sourceClass, final List<String> validMethodNames)
+      throws IOException
+    {
+        final CompilationUnit builderTarget = generateCompileUnit(getSourcePackage(source) + configuration.getBuilderPackage());
+        final ClassOrInterfaceDeclaration builder = builderTarget.addClass("Abstract" + (sourceClass.isInterface() ? sourceClass.getNameAsString().substring(1) :  sourceClass.getNameAsString()) + "Builder", Modifier.Keyword.PUBLIC, Modifier.Keyword.ABSTRACT);
+
+        builder.addTypeParameter(parseTypeParameter("C extends Abstract" + (sourceClass.isInterface() ? sourceClass.getNameAsString().substring(1) :  sourceClass.getNameAsString()) + "Builder<C, I, O>"));
+        builder.addTypeParameter(parseTypeParameter("I"));
+        //The own interface extends the interface of the super class, so it also satisfies the bound of the super builder.
+        builder.addTypeParameter(parseTypeParameter("O extends I" + sourceClass.getNameAsString() + "<I>"));
+
+        final ClassOrInterfaceType extended = getGeneratedSuperType(source, sourceClass);
+        if (extended != null)
+        {
+            builder.addExtendedType(parseClassOrInterfaceType("Abstract" + extended.getName() + "Builder<C, I, O>"));
+        }
+
+        final List<MethodDeclaration> methodDeclarations = new ArrayList<>(sourceClass.getMethods());
+        final Map<String, MethodDeclaration> primaryMap = new HashMap<>();
+        final Map<String, List<MethodDeclaration>> overloadMap = new HashMap<>();
+        final List<Path> outputFiles = new ArrayList<>();
+        final List<IOException> failures = new ArrayList<>();
+        final Set<PrimitiveType.Primitive> primitiveFunctions = EnumSet.noneOf(PrimitiveType.Primitive.class);
+        final Map<String, Path> exportedContexts = new HashMap<>();
+
+        final int declaredMethods = methodDeclarations.size();
+        methodDeclarations.removeIf(m -> m.getModifiers().contains(Modifier.privateModifier()) || m.getModifiers().contains(Modifier.staticModifier()));
+        methodDeclarations.removeIf(m -> m.getNameAsString().contains("set"));
+        methodDeclarations.removeIf(m -> !validMethodNames.contains("*") && !validMethodNames.contains(m.getNameAsString()));
+        removeInheritedMethods(source, sourceClass, methodDeclarations);
+        metrics.count(GenerationMetrics.Counter.METHODS_KEPT, methodDeclarations.size());
+        metrics.count(GenerationMetrics.Counter.METHODS_FILTERED, declaredMethods - methodDeclarations.size());
+
+        final SignatureIndex signatureIndex = new SignatureIndex(methodDeclarations, mapping::processTypeForMapping);
+        methodDeclarations.sort(signatureIndex.comparator());
+
+        methodDeclarations.forEach(m -> {
+            primaryMap.putIfAbsent(m.getNameAsString(), m);
+            overloadMap.putIfAbsent(m.getNameAsString(), new ArrayList<>());
+
+            if (primaryMap.get(m.getNameAsString()) != m)
+            {
+                overloadMap.get(m.getNameAsString()).add(m);
+            }
+        });
+
+        primaryMap.entrySet().forEach(e -> {
+            try (GenerationMetrics.Timer ignored = metrics.time(GenerationMetrics.Phase.CONTEXT, e.getKey()))
+            {
+                outputFiles.add(generateLogicBuilderMethod(inputFile, source, builderTarget, builder, e.getValue(), e.getKey(), new ArrayList<>(), primitiveFunctions, exportedContexts));
+            }
+            catch (IOException e1)
+            {
+                failures.add(e1);
+            }
+
+            if (!overloadMap.get(e.getKey()).isEmpty())
+            {
+                metrics.count(GenerationMetrics.Counter.OVERLOAD_GROUPS);
+            }
+
+            final List<List<String>> overloadData = signatureIndex.getOverloadData(e.getValue(), overloadMap.get(e.getKey()));
+            for (int i = 0; i < overloadMap.get(e.getKey()).size(); i++)
+            {
+                final MethodDeclaration overload = overloadMap.get(e.getKey()).get(i);
+
+                try (GenerationMetrics.Timer ignored = metrics.time(GenerationMetrics.Phase.CONTEXT, e.getKey()))
+                {
+                    outputFiles.add(generateLogicBuilderMethod(inputFile, source, builderTarget, builder, overload, e.getKey(), overloadData.get(i), primitiveFunctions, exportedContexts));
+                }
+                catch (IOException e1)
+                {
+                    failures.add(e1);
+                }
+            }
+        });
+
+        if (extended == null)
+        {
+            builder.addMethod("build", Modifier.Keyword.PUBLIC, Modifier.Keyword.ABSTRACT).setType(parseType("I" + sourceClass.getNameAsString() + "<I>")).setBody(null).addParameter(parseType("I"), "guiContext");
+        }
+
+        for (final PrimitiveType.Primitive primitive : primitiveFunctions)
+        {
+            try
+            {
+                outputFiles.add(generatePrimitiveFunction(inputFile, source, builderTarget, primitive));
+            }
+            catch (IOException e)
+            {
+                failures.add(e);
+            }
+        }
+
+        outputFiles.add(export(inputFile, source, builderTarget, "Abstract" + (sourceClass.isInterface() ? sourceClass.getNameAsString().substring(1) :  sourceClass.getNameAsString()) + "Builder"));
+
+        if (configuration.getBenchmarkRoot() != null)
+        {
+            outputFiles.add(generateBenchmark(builderTarget, builder, "I" + sourceClass.getNameAsString()));
+        }
+
+        rethrowFirst(failures);
+        return outputFiles.stream().distinct().collect(Collectors.toList());
+    }
+
+    private Path generateLogicBuilderMethod(
+      final Path inputFile,
+      final CompilationUnit source,
+      final CompilationUnit builderUnit,
+      final ClassOrInterfaceDeclaration builder,
+      final MethodDeclaration method,
+      final String methodName,
+      final List<String> overloadMethodVariableNames,
+      final Set<PrimitiveType.Primitive> primitiveFunctions,
+      final Map<String, Path> exportedContexts) throws IOException
+    {
+        String contextClassName = Capitalize(methodName);
+        if (!overloadMethodVariableNames.isEmpty())
+        {
+            contextClassName += "With";
+            for (int i = 0; i < overloadMethodVariableNames.size(); i++)
+            {
+                contextClassName += Capitalize(overloadMethodVariableNames.get(i));
+                if (i != (overloadMethodVariableNames.size() - 1))
+                    contextClassName += "And";
+            }
+        }
+        final String methodNameWithOverloads = contextClassName;
+        contextClassName += "Context";
+
+        final String contextPackage = getSourcePackage(source) + configuration.getContextPackage();
+        if (configuration.isSharedContexts())
+        {
+            contextClassName = contextRegistry.getContextName(contextPackage,
+              method.getTypeParameters(),
+              method.getParameters()
+                .stream()
+                .map(this::processMethodParameter)
+                .map(p -> new Parameter(p.getType(), (p.getNameAsString().startsWith("I") ? p.getNameAsString().substring(1) : p.getNameAsString())))
+                .collect(Collectors.toList()),
+              contextClassName);
+        }
+        addImport(builderUnit, getSourcePackage(source) + configuration.getInterfacePackage() + ".*");
+        addImport(builderUnit, contextPackage + ".*");
+        addImport(builderUnit, "java.util.function.Function");
+        addImport(builderUnit, "java.util.function.Consumer");
+        addImport(builderUnit, "java.util.List");
+        addImport(builderUnit, "java.util.ArrayList");
+        addImport(builderUnit, configuration.isFrozenPipelines() ? "java.util.Collections" : "java.util.Arrays");
+        addImport(builderUnit, "com.ldtteam.jvoxelizer.core.logic.*");
+
+        final MethodDeclaration logicMethod = builder.addMethod(methodNameWithOverloads, Modifier.Keyword.PUBLIC);
+        logicMethod.setType(parseType("C"));
+        if (configuration.isPrimitivePipelines() && method.getType().isPrimitiveType())
+        {
+            //We have a primitive return type, keep it unboxed.
+            final PrimitiveType.Primitive primitive = method.getType().asPrimitiveType().getType();
+            final ClassOrInterfaceType componentType =
+              getPrimitiveComponentType(builderUnit, primitive, getTypedContextType(method, contextClassName, primitive.toBoxedType()), primitiveFunctions);
+
+            builder.addFieldWithInitializer(PRIMITIVE_PIPELINE_TYPE.instantiate(componentType), methodNameWithOverloads + "Pipeline", PIPELINE_INITIALIZER.instantiate(), Modifier.Keyword.PRIVATE, Modifier.Keyword.FINAL);
+            logicMethod.addAndGetParameter(componentType.clone(), "components").setVarArgs(true);
+
+            if (configuration.isFrozenPipelines())
+            {
+                addFreezeMethod(builder, methodNameWithOverloads, componentType);
+            }
+
+            method.getTypeParameters().forEach(logicMethod::addTypeParameter);
+        }
+        else if (!method.getType().equals(new VoidType()))
+        {
+            //We have a return type.
+            final String returnTypeName = mapping.processTypeForMapping(method.getType()).asString();
+            final Type pipelineResultType = method.getTypeParameters()
+                                              .stream()
+                                              .filter(t -> t.getNameAsString().equals(returnTypeName))
+                                              .findFirst()
+                                              .<Type>map(Generator::getWildcard)
+                                              .orElseGet(() -> AstTemplate.typeArgument(Capitalize(returnTypeName)));
+
+            builder.addFieldWithInitializer(FUNCTION_PIPELINE_TYPE.instantiate(getTypedContextType(method, contextClassName), pipelineResultType), methodNameWithOverloads + "Pipeline", PIPELINE_INITIALIZER.instantiate(), Modifier.Keyword.PRIVATE, Modifier.Keyword.FINAL);
+            logicMethod.addAndGetParameter(FUNCTION_COMPONENT_TYPE.instantiate(getTypedContextType(method, contextClassName), AstTemplate.typeArgument(Capitalize(returnTypeName))), "components").setVarArgs(true);
+
+            if (configuration.isFrozenPipelines())
+            {
+                addFreezeMethod(builder, methodNameWithOverloads, FUNCTION_COMPONENT_TYPE.instantiate(getTypedContextType(method, contextClassName), pipelineResultType));
+            }
+
+            if (method.getTypeParameters().size() > 0)
+            {
+                method.getTypeParameters().forEach(logicMethod::addTypeParameter);
+            }
+        }
+        else
+        {
+            builder.addFieldWithInitializer(CONSUMER_PIPELINE_TYPE.instantiate(getVoidContextType(method, contextClassName)), methodNameWithOverloads + "Pipeline", PIPELINE_INITIALIZER.instantiate(), Modifier.Keyword.PRIVATE, Modifier.Keyword.FINAL);
+            logicMethod.addAndGetParameter(CONSUMER_COMPONENT_TYPE.instantiate(getVoidContextType(method, contextClassName)), "components").setVarArgs(true);
+
+            if (configuration.isFrozenPipelines())
+            {
+                final ClassOrInterfaceType componentType = CONSUMER_COMPONENT_TYPE.instantiate(getVoidContextType(method, contextClassName));
+                addFreezeMethod(builder, methodNameWithOverloads, componentType);
+                builder.addMethod("compose" + methodNameWithOverloads + "Pipeline", Modifier.Keyword.PROTECTED)
+                  .setType(componentType.clone())
+                  .setBody(COMPOSE_PIPELINE_BODY.instantiate(methodNameWithOverloads, componentType));
+            }
+        }
+        logicMethod.setBody((configuration.isFrozenPipelines() ? FROZEN_PIPELINE_REGISTRATION_BODY : PIPELINE_REGISTRATION_BODY).instantiate(methodNameWithOverloads));
+
+        if (configuration.isSharedContexts() && exportedContexts.containsKey(contextClassName))
+        {
+            return exportedContexts.get(contextClassName);
+        }
+
+        final CompilationUnit contextTarget = generateCompileUnit(contextPackage);
+
+        final ClassOrInterfaceDeclaration contextClass = contextTarget.addClass(contextClassName, Modifier.Keyword.PUBLIC);
+
+        method.getTypeParameters().forEach(contextClass::addTypeParameter);
+
+        final ConstructorDeclaration constructorDeclaration = contextClass.addConstructor(Modifier.Keyword.PUBLIC);
+        constructorDeclaration.setBody(new BlockStmt());
+
+        method.getParameters().stream().map(this::processMethodParameter).forEach(p -> {
+            constructorDeclaration.addParameter(p.getType(), (p.getNameAsString().startsWith("I") ? p.getNameAsString().substring(1) : p.getNameAsString()));
+            constructorDeclaration.getBody().addStatement(new ExpressionStmt(new AssignExpr(new FieldAccessExpr(new ThisExpr(), (p.getNameAsString().startsWith("I") ? p.getNameAsString().substring(1) : p.getNameAsString())), new NameExpr((p.getNameAsString().startsWith("I") ? p.getNameAsString().substring(1) : p.getNameAsString())), AssignExpr.Operator.ASSIGN)));
+
+            //Generate field, getter and setter.
+            final FieldDeclaration backingField = contextClass.addField(p.getType(), (p.getNameAsString().startsWith("I") ? p.getNameAsString().substring(1) : p.getNameAsString()), Modifier.Keyword.PRIVATE);
+            final MethodDeclaration getterMethod = contextClass.addMethod("get" + Capitalize((p.getNameAsString().startsWith("I") ? p.getNameAsString().substring(1) : p.getNameAsString())), Modifier.Keyword.PUBLIC).setType(p.getType());
+            getterMethod.setBody(new BlockStmt(new NodeList<>(new ReturnStmt(new NameExpr((p.getNameAsString().startsWith("I") ? p.getNameAsString().substring(1) : p.getNameAsString()))))));
+
+            final MethodDeclaration setterMethod = contextClass.addMethod("set" + Capitalize((p.getNameAsString().startsWith("I") ? p.getNameAsString().substring(1) : p.getNameAsString())), Modifier.Keyword.PUBLIC);
+            setterMethod.addParameter(p.getType(), (p.getNameAsString().startsWith("I") ? p.getNameAsString().substring(1) : p.getNameAsString()));
+            setterMethod.setBody(new BlockStmt(new NodeList<>(new ExpressionStmt(new AssignExpr(new FieldAccessExpr(new ThisExpr(), (p.getNameAsString().startsWith("I") ? p.getNameAsString().substring(1) : p.getNameAsString())), new NameExpr((p.getNameAsString().startsWith("I") ? p.getNameAsString().substring(1) : p.getNameAsString())), AssignExpr.Operator.ASSIGN)))));
+        });
+
+        if (configuration.isReusableContexts())
+        {
+            addReuseMembers(contextClass, constructorDeclaration);
+        }
+
+        metrics.count(GenerationMetrics.Counter.CONTEXT_CLASSES);
+        final Path contextFile = export(inputFile, source, contextTarget, contextClassName);
+        exportedContexts.put(contextClassName, contextFile);
+        return contextFile;
+    }
+
+    /**
+     * The pipeline element type of a primitive result: the primitive function of java.util.function if there is one,
+     * otherwise a function interface generated next to the builder, which is recorded in primitiveFunctions.
+     */
+    private static ClassOrInterfaceType getPrimitiveComponentType(
+      final CompilationUnit builderUnit,
+      final PrimitiveType.Primitive primitive,
+      final ClassOrInterfaceType contextType,
+      final Set<PrimitiveType.Primitive> primitiveFunctions)
+    {
+        final String functionName = PRIMITIVE_FUNCTIONS.get(primitive);
+        if (functionName != null)
+        {
+            addImport(builderUnit, functionName);
+        }
+        else
+        {
+            primitiveFunctions.add(primitive);
+        }
+
+        final ClassOrInterfaceType componentType = new ClassOrInterfaceType(null, getPrimitiveFunctionName(primitive));
+        componentType.setTypeArguments(contextType);
+        return componentType;
+    }
+
+    private static String getPrimitiveFunctionName(final PrimitiveType.Primitive primitive)
+    {
+        final String functionName = PRIMITIVE_FUNCTIONS.get(primitive);
+        return functionName != null ? functionName.substring(functionName.lastIndexOf('.') + 1) : "To" + Capitalize(primitive.asString()) + "Function";
+    }
+
+    /**
+     * Generates the function interface of a primitive result that java.util.function does not have, into the package of the builder.
+     */
+    private Path generatePrimitiveFunction(final Path inputFile, final CompilationUnit source, final CompilationUnit builderUnit, final PrimitiveType.Primitive primitive) throws IOException
+    {
+        final String functionName = getPrimitiveFunctionName(primitive);
+        final CompilationUnit functionTarget = generateCompileUnit(builderUnit.getPackageDeclaration().get().getNameAsString());
+        final ClassOrInterfaceDeclaration function = functionTarget.addInterface(functionName, Modifier.Keyword.PUBLIC);
+        function.addMarkerAnnotation("FunctionalInterface");
+        function.addTypeParameter("T");
+        function.addMethod("applyAs" + Capitalize(primitive.asString()))
+          .setType(new PrimitiveType(primitive))
+          .addParameter("T", "value")
+          .setBody(null);
+
+        return export(inputFile, source, functionTarget, functionName);
+    }
+
+    /**
+     * Makes a context reusable: adds a no-arg constructor, fill(...) which sets every field at once like the constructor,
+     * reset() which drops all references and current() which returns the context of the calling thread. The context of
+     * the thread is lent until reset(), a nested current() gets a new context instead.
+     */
+    private static void addReuseMembers(final ClassOrInterfaceDeclaration contextClass, final ConstructorDeclaration constructorDeclaration)
+    {
+        final ClassOrInterfaceType contextType = new ClassOrInterfaceType(null, contextClass.getNameAsString());
+        final ClassOrInterfaceType wildcardContextType = contextType.clone();
+        if (contextClass.getTypeParameters().size() > 0)
+        {
+            contextType.setTypeArguments(contextClass.getTypeParameters()
+                                           .stream()
+                                           .map(t -> new ClassOrInterfaceType(null, t.getNameAsString()))
+                                           .collect(Collectors.toCollection(NodeList::new)));
+            wildcardContextType.setTypeArguments(contextClass.getTypeParameters()
+                                                   .stream()
+                                                   .map(t -> new WildcardType())
+                                                   .collect(Collectors.toCollection(NodeList::new)));
+        }
+
+        if (constructorDeclaration.getParameters().size() > 0)
+        {
+            contextClass.getMembers().addAfter(new ConstructorDeclaration(new NodeList<>(Modifier.publicModifier()), contextClass.getNameAsString()), constructorDeclaration);
+        }
+
+        final MethodDeclaration fillMethod = contextClass.addMethod("fill", Modifier.Keyword.PUBLIC).setType(contextType.clone());
+        constructorDeclaration.getParameters().forEach(p -> fillMethod.addParameter(p.clone()));
+        fillMethod.setBody(constructorDeclaration.getBody().clone());
+        fillMethod.getBody().get().addStatement(new ReturnStmt(new ThisExpr()));
+
+        final BlockStmt resetBody = new BlockStmt();
+        constructorDeclaration.getParameters().forEach(p -> resetBody.addStatement(new AssignExpr(new FieldAccessExpr(new ThisExpr(), p.getNameAsString()), getDefaultValue(p.getType()), AssignExpr.Operator.ASSIGN)));
+        resetBody.addStatement(new AssignExpr(new FieldAccessExpr(new ThisExpr(), "inUse"), new BooleanLiteralExpr(false), AssignExpr.Operator.ASSIGN));
+        contextClass.addMethod("reset", Modifier.Keyword.PUBLIC).setBody(resetBody);
+
+        contextClass.addField(PrimitiveType.booleanType(), "inUse", Modifier.Keyword.PRIVATE);
+        contextClass.addFieldWithInitializer(CONTEXT_POOL_TYPE.instantiate(wildcardContextType), "POOL", new MethodCallExpr(new NameExpr("ThreadLocal"), "withInitial", new NodeList<>(new MethodReferenceExpr(new TypeExpr(contextType.clone().removeTypeArguments()), null, "new"))), Modifier.Keyword.PRIVATE, Modifier.Keyword.STATIC, Modifier.Keyword.FINAL);
+        final MethodDeclaration currentMethod = contextClass.addMethod("current", Modifier.Keyword.PUBLIC, Modifier.Keyword.STATIC).setType(contextType.clone());
+        contextClass.getTypeParameters().forEach(t -> currentMethod.addTypeParameter(t.clone()));
+        currentMethod.setBody((contextClass.getTypeParameters().size() > 0 ? GENERIC_CONTEXT_POOL_BODY : CONTEXT_POOL_BODY).instantiate(contextType));
+    }
+
+    private static Expression getDefaultValue(final Type type)
+    {
+        if (!type.isPrimitiveType())
+        {
+            return new NullLiteralExpr();
+        }
+
+        return type.asPrimitiveType().getType() == PrimitiveType.Primitive.BOOLEAN ? new BooleanLiteralExpr(false) : new IntegerLiteralExpr(0);
+    }
+
+    /**
+     * Adds the method that copies a pipeline into an array, for the builder to hand to the built object. Generic arrays
+     * cannot be created, so the copy is made into an array of the wildcard component type and cast back.
+     */
+    private static void addFreezeMethod(final ClassOrInterfaceDeclaration builder, final String methodNameWithOverloads, final ClassOrInterfaceType componentType)
+    {
+        final ClassOrInterfaceType wildcardComponentType = componentType.clone();
+        wildcardComponentType.getTypeArguments()
+          .ifPresent(arguments -> wildcardComponentType.setTypeArguments(arguments.stream().map(a -> new WildcardType()).collect(Collectors.toCollection(NodeList::new))));
+
+        builder.addMethod("freeze" + methodNameWithOverloads + "Pipeline", Modifier.Keyword.PROTECTED)
+          .setType(new ArrayType(componentType.clone()))
+          .addAnnotation(Parsers.parse(p -> p.parseAnnotation("@SuppressWarnings(\"unchecked\")")))
+          .setBody(FREEZE_PIPELINE_BODY.instantiate(methodNameWithOverloads, wildcardComponentType, componentType.clone()));
+    }
+
+    /**
+     * Generates a JMH benchmark of a builder into the benchmark root. A stub subclass of the builder gets a number of
+     * trivial elements per pipeline, then every pipeline is frozen and one benchmark per pipeline runs it with a null context.
+     */
+    private Path generateBenchmark(final CompilationUnit builderUnit, final ClassOrInterfaceDeclaration builder, final String interfaceName) throws IOException
+    {
+        final String benchmarkPackage = builderUnit.getPackageDeclaration().get().getNameAsString();
+        final CompilationUnit benchmarkTarget = generateCompileUnit(benchmarkPackage);
+        builderUnit.getImports().forEach(i -> benchmarkTarget.addImport(i.clone()));
+        addImport(benchmarkTarget, "java.util.concurrent.TimeUnit");
+        addImport(benchmarkTarget, "org.openjdk.jmh.annotations.*");
+        addImport(benchmarkTarget, "org.openjdk.jmh.infra.Blackhole");
+
+        final ClassOrInterfaceDeclaration benchmark = benchmarkTarget.addClass(builder.getNameAsString() + "Benchmark", Modifier.Keyword.PUBLIC);
+        BENCHMARK_ANNOTATIONS.forEach(a -> benchmark.addAnnotation(Parsers.parse(p -> p.parseAnnotation(a))));
+        benchmark.addField(PrimitiveType.intType(), "elements", Modifier.Keyword.PUBLIC).addAnnotation(Parsers.parse(p -> p.parseAnnotation("@Param({\"1\", \"2\", \"8\"})")));
+
+        final ClassOrInterfaceDeclaration stubBuilder = new ClassOrInterfaceDeclaration(new NodeList<>(Modifier.staticModifier(), Modifier.finalModifier()), false, "StubBuilder");
+        stubBuilder.addExtendedType(parseClassOrInterfaceType(builder.getNameAsString() + "<StubBuilder, Object, " + interfaceName + "<Object>>"));
+        stubBuilder.addMethod("build", Modifier.Keyword.PUBLIC)
+          .setType(parseType(interfaceName + "<Object>"))
+          .addParameter(parseType("Object"), "guiContext")
+          .setBody(BENCHMARK_STUB_BUILD_BODY.instantiate());
+
+        final BlockStmt setupBody = BENCHMARK_SETUP_BODY.instantiate();
+        final BlockStmt registrations = setupBody.findFirst(BlockStmt.class, b -> b != setupBody).get();
+        final List<MethodDeclaration> benchmarkMethods = new ArrayList<>();
+
+        for (final MethodDeclaration freezeMethod : builder.getMethods())
+        {
+            final String freezeName = freezeMethod.getNameAsString();
+            if (!freezeName.startsWith("freeze") || !freezeName.endsWith("Pipeline"))
+            {
+                continue;
+            }
+
+            final String methodNameWithOverloads = freezeName.substring("freeze".length(), freezeName.length() - "Pipeline".length());
+            final String componentName = freezeMethod.getType().asArrayType().getComponentType().asClassOrInterfaceType().getNameAsString();
+            final boolean composed = !builder.getMethodsByName("compose" + methodNameWithOverloads + "Pipeline").isEmpty();
+            final String accessorName = (composed ? "compose" : "freeze") + methodNameWithOverloads + "Pipeline";
+
+            registrations.addStatement(new MethodCallExpr(new NameExpr("builder"), methodNameWithOverloads, new NodeList<>(getTrivialElement(componentName))));
+            setupBody.addStatement(new AssignExpr(new FieldAccessExpr(new ThisExpr(), methodNameWithOverloads + "Pipeline"),
+              new MethodCallExpr(new NameExpr("builder"), accessorName),
+              AssignExpr.Operator.ASSIGN));
+
+            final MethodDeclaration benchmarkMethod = new MethodDeclaration(new NodeList<>(Modifier.publicModifier()), new VoidType(), methodNameWithOverloads);
+            benchmarkMethod.addMarkerAnnotation("Benchmark");
+            benchmarkMethods.add(benchmarkMethod);
+            if (composed)
+            {
+                benchmark.addField(parseType(componentName), methodNameWithOverloads + "Pipeline", Modifier.Keyword.PRIVATE);
+                benchmarkMethod.setBody(BENCHMARK_COMPOSED_PIPELINE_BODY.instantiate(methodNameWithOverloads));
+            }
+            else
+            {
+                benchmark.addField(new ArrayType(parseType(componentName)), methodNameWithOverloads + "Pipeline", Modifier.Keyword.PRIVATE);
+                benchmarkMethod.addParameter(new Parameter(new NodeList<>(Modifier.finalModifier()), parseType("Blackhole"), new SimpleName("blackhole")));
+                benchmarkMethod.setBody(BENCHMARK_FROZEN_PIPELINE_BODY.instantiate(parseType(componentName), methodNameWithOverloads));
+
+                final MethodCallExpr invocation = new MethodCallExpr(new NameExpr("element"), getInvocationName(componentName), new NodeList<>(new NullLiteralExpr()));
+                benchmarkMethod.findFirst(ForEachStmt.class).get().getBody().asBlockStmt().addStatement(new MethodCallExpr(new NameExpr("blackhole"), "consume", new NodeList<>(invocation)));
+            }
+        }
+
+        benchmark.addMethod("setup", Modifier.Keyword.PUBLIC).setBody(setupBody).addAnnotation(Parsers.parse(p -> p.parseAnnotation("@Setup(Level.Trial)")));
+        benchmarkMethods.forEach(benchmark::addMember);
+        benchmark.addMember(stubBuilder);
+
+        final Path targetFile = configuration.getBenchmarkRoot().resolve(benchmarkPackage.replace('.', '/')).resolve(benchmark.getNameAsString() + ".java");
+        return write(targetFile, benchmarkTarget);
+    }
+
+    /**
+     * An element that does nothing but return a constant, for a pipeline of the given element type.
+     */
+    private static LambdaExpr getTrivialElement(final String componentName)
+    {
+        final String body;
+        switch (componentName)
+        {
+            case "Function":
+                body = "null";
+                break;
+            case "Consumer":
+                body = "{}";
+                break;
+            case "Predicate":
+                body = "true";
+                break;
+            default:
+                body = "0";
+                break;
+        }
+
+        return Parsers.parse(p -> p.<LambdaExpr>parseExpression("context -> " + body));
+    }
+
+    private static String getInvocationName(final String componentName)
+    {
+        switch (componentName)
+        {
+            case "Function":
+                return "apply";
+            case "Predicate":
+                return "test";
+            default:
+                return "applyAs" + componentName.substring("To".length(), componentName.length() - "Function".length());
+        }
+    }
+
+    private Path export(final Path inputFile, final CompilationUnit source, final CompilationUnit target, final String typeName) throws IOException
+    {
+        return write(getOutputFile(inputFile, source, target, typeName), target);
+    }
+
+    @SuppressWarnings("try")
+    private Path write(final Path targetFile, final CompilationUnit target) throws IOException
+    {
+        final String content;
+        try (GenerationMetrics.Timer ignored = metrics.time(GenerationMetrics.Phase.PRINT, targetFile.toString()))
+        {
+            content = target.toString();
+        }
+
+        try (GenerationMetrics.Timer ignored = metrics.time(GenerationMetrics.Phase.WRITE, targetFile.toString()))
+        {
+            outputSink.write(targetFile, content);
+        }
+        return targetFile;
+    }
+
+    /**
+     * The file of a generated type, below the output root or next to the input file.
+     */
+    private Path getOutputFile(final Path inputFile, final CompilationUnit source, final CompilationUnit target, final String typeName)
+    {
+        final String targetPackage = target.getPackageDeclaration().get().getNameAsString();
+        if (configuration.getOutputRoot() != null)
+        {
+            return configuration.getOutputRoot().resolve(targetPackage.replace('.', '/')).resolve(typeName + ".java");
+        }
+
+        Path directory = inputFile.toAbsolutePath().getParent();
+        for (final String subPackage : targetPackage.replace(getSourcePackage(source), "").toLowerCase().split("\\."))
+        {
+            if (!subPackage.isEmpty())
+            {
+                directory = directory.resolve(subPackage);
+            }
+        }
+
+        return directory.resolve(typeName + ".java");
+    }
+
+    private static String getSourcePackage(final CompilationUnit source)
+    {
+        return source.getPackageDeclaration().get().getNameAsString();
+    }
+
+    private static void rethrowFirst(final List<IOException> failures) throws IOException
+    {
+        if (failures.isEmpty())
+        {
+            return;
+        }
+
+        final IOException first = failures.get(0);
+        failures.subList(1, failures.size()).forEach(first::addSuppressed);
+        throw first;
+    }
+
+    private static ClassOrInterfaceType getVoidContextType(final MethodDeclaration method, final String contextClassName)
+    {
+        return VOID_CONTEXT_TYPE.instantiate(getFullContextType(method, contextClassName));
+    }
+
+    private ClassOrInterfaceType getTypedContextType(final MethodDeclaration method, final String contextClassName)
+    {
+        return getTypedContextType(method, contextClassName, AstTemplate.typeArgument(Capitalize(mapping.processTypeForMapping(method.getType()).asString())));
+    }
+
+    /**
+     * @param resultType the result type argument of the context of a method without type parameters.
+     */
+    private static ClassOrInterfaceType getTypedContextType(final MethodDeclaration method, final String contextClassName, final Type resultType)
+    {
+        return TYPED_CONTEXT_TYPE.instantiate(getFullContextType(method, contextClassName), method.getTypeParameters().size() > 0
+                                                                                              ? getWildcardTypeParameters(method)
+                                                                                              : resultType);
+    }
+
+    private static ClassOrInterfaceType getFullContextType(final MethodDeclaration method, final String contextClassName)
+    {
+        final ClassOrInterfaceType contextType = new ClassOrInterfaceType(null, contextClassName);
+        if (method.getTypeParameters().size() > 0)
+        {
+            contextType.setTypeArguments(new NodeList<>(getWildcardTypeParameters(method)));
+        }
+
+        return contextType;
+    }
+
+    private static List<Type> getWildcardTypeParameters(final MethodDeclaration method)
+    {
+        return method.getTypeParameters()
+                 .stream()
+                 .map(Generator::getWildcard)
+                 .collect(Collectors.toList());
+    }
+
+    /**
+     * The wildcard that accepts every argument of the given type parameter, ? for an unbound parameter.
+     */
+    private static WildcardType getWildcard(final TypeParameter typeParameter)
+    {
+        return typeParameter.getTypeBound().isEmpty() ? new WildcardType() : new WildcardType(typeParameter.getTypeBound().get(0).clone());
+    }
+
+    static String getCleanedTypeName(final Type type)
+    {
+        if (type.isClassOrInterfaceType())
+        {
+            final ClassOrInterfaceType c = type.asClassOrInterfaceType();
+
+            if (c.getTypeArguments().isPresent())
+            {
+                return c.getTypeArguments().get().stream().map(t -> getCleanedTypeName(t)).collect(Collectors.joining()) + c.getNameAsString();
+            }
+
+            return c.asString();
+        }
+
+        return type.asString();
+    }
+
+    private static CompilationUnit generateCompileUnit(String packageName)
+    {
+        CompilationUnit cu = new CompilationUnit();
+        cu.setPackageDeclaration(new PackageDeclaration(Parsers.parse(p -> p.parseName(packageName))));
+
+        return cu;
+    }
+
+    private static void addImport(final CompilationUnit unit, final String name)
+    {
+        unit.addImport(Parsers.parse(p -> p.parseImport("import " + name + ";")));
+    }
+
+    private static Type parseType(final String type)
+    {
+        return Parsers.parse(p -> p.parseType(type));
+    }
+
+    private static ClassOrInterfaceType parseClassOrInterfaceType(final String type)
+    {
+        return Parsers.parse(p -> p.parseClassOrInterfaceType(type));
+    }
+
+    private static TypeParameter parseTypeParameter(final String typeParameter)
+    {
+        return Parsers.parse(p -> p.parseTypeParameter(typeParameter));
+    }
+
+    static String Capitalize(String string)
+    {
+        return string.substring(0,1).toUpperCase() + (string.length() > 1 ? string.substring(1) : "");
+    }
+}
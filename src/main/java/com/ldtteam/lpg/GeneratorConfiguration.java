@@ -0,0 +1,227 @@
+package com.ldtteam.lpg;
+
+import java.nio.file.Path;
+
+/**
+ * Settings of a {@link Generator}: the mapping, the method whitelist, where the generated types are placed and where
+ * they are written to.
+ * <p>
+ * Packages are given relative to the package of the source class. Without an output root the generated files are
+ * placed next to the input file, in lower cased sub directories for the sub packages, otherwise they are written below
+ * the output root in the usual directory per package layout.
+ */
+public class GeneratorConfiguration
+{
+    private Mapping            mapping          = new Mapping();
+    private MethodWhitelist    whitelist        = new MethodWhitelist();
+    private String             interfacePackage = "";
+    private String             builderPackage   = ".logic.builder";
+    private String             contextPackage   = ".logic.builder.contexts";
+    private Path               outputRoot       = null;
+    private OutputSink         outputSink       = new FileSystemOutputSink();
+    private GenerationMetrics  metrics          = new GenerationMetrics();
+    private boolean            frozenPipelines  = false;
+    private boolean            reusableContexts = false;
+    private boolean            primitivePipelines = false;
+    private boolean            sharedContexts   = false;
+    private TypeGraph          typeGraph        = null;
+    private Path               benchmarkRoot    = null;
+
+    public GeneratorConfiguration()
+    {
+    }
+
+    public GeneratorConfiguration(final GeneratorConfiguration configuration)
+    {
+        this.mapping = configuration.mapping;
+        this.whitelist = configuration.whitelist;
+        this.interfacePackage = configuration.interfacePackage;
+        this.builderPackage = configuration.builderPackage;
+        this.contextPackage = configuration.contextPackage;
+        this.outputRoot = configuration.outputRoot;
+        this.outputSink = configuration.outputSink;
+        this.metrics = configuration.metrics;
+        this.frozenPipelines = configuration.frozenPipelines;
+        this.reusableContexts = configuration.reusableContexts;
+        this.primitivePipelines = configuration.primitivePipelines;
+        this.sharedContexts = configuration.sharedContexts;
+        this.typeGraph = configuration.typeGraph;
+        this.benchmarkRoot = configuration.benchmarkRoot;
+    }
+
+    public Mapping getMapping()
+    {
+        return mapping;
+    }
+
+    public void setMapping(final Mapping mapping)
+    {
+        this.mapping = mapping;
+    }
+
+    public MethodWhitelist getWhitelist()
+    {
+        return whitelist;
+    }
+
+    public void setWhitelist(final MethodWhitelist whitelist)
+    {
+        this.whitelist = whitelist;
+    }
+
+    public String getInterfacePackage()
+    {
+        return interfacePackage;
+    }
+
+    /**
+     * @param interfacePackage the package of the interfaces relative to the source package, "" for the source package.
+     */
+    public void setInterfacePackage(final String interfacePackage)
+    {
+        this.interfacePackage = interfacePackage;
+    }
+
+    public String getBuilderPackage()
+    {
+        return builderPackage;
+    }
+
+    /**
+     * @param builderPackage the package of the builders relative to the source package, like ".logic.builder".
+     */
+    public void setBuilderPackage(final String builderPackage)
+    {
+        this.builderPackage = builderPackage;
+    }
+
+    public String getContextPackage()
+    {
+        return contextPackage;
+    }
+
+    /**
+     * @param contextPackage the package of the contexts relative to the source package, like ".logic.builder.contexts".
+     */
+    public void setContextPackage(final String contextPackage)
+    {
+        this.contextPackage = contextPackage;
+    }
+
+    public Path getOutputRoot()
+    {
+        return outputRoot;
+    }
+
+    /**
+     * @param outputRoot the source root to write the generated files to, or null to write them next to the input.
+     */
+    public void setOutputRoot(final Path outputRoot)
+    {
+        this.outputRoot = outputRoot;
+    }
+
+    public OutputSink getOutputSink()
+    {
+        return outputSink;
+    }
+
+    public void setOutputSink(final OutputSink outputSink)
+    {
+        this.outputSink = outputSink;
+    }
+
+    public GenerationMetrics getMetrics()
+    {
+        return metrics;
+    }
+
+    public void setMetrics(final GenerationMetrics metrics)
+    {
+        this.metrics = metrics;
+    }
+
+    public boolean isFrozenPipelines()
+    {
+        return frozenPipelines;
+    }
+
+    /**
+     * @param frozenPipelines if true, the builders get methods that copy each pipeline into an array, and compose void
+     *                        pipelines into a single consumer, for the built object to run without iterating a list.
+     */
+    public void setFrozenPipelines(final boolean frozenPipelines)
+    {
+        this.frozenPipelines = frozenPipelines;
+    }
+
+    public boolean isReusableContexts()
+    {
+        return reusableContexts;
+    }
+
+    /**
+     * @param reusableContexts if true, the contexts get a no-arg constructor, fill(...), reset() and a per thread instance
+     *                         from current(), so a caller can run a pipeline without allocating a context.
+     */
+    public void setReusableContexts(final boolean reusableContexts)
+    {
+        this.reusableContexts = reusableContexts;
+    }
+
+    public boolean isPrimitivePipelines()
+    {
+        return primitivePipelines;
+    }
+
+    /**
+     * @param primitivePipelines if true, the pipelines of methods with a primitive result use primitive functions, like
+     *                           ToIntFunction or Predicate, instead of a Function of the boxed result.
+     */
+    public void setPrimitivePipelines(final boolean primitivePipelines)
+    {
+        this.primitivePipelines = primitivePipelines;
+    }
+
+    public boolean isSharedContexts()
+    {
+        return sharedContexts;
+    }
+
+    /**
+     * @param sharedContexts if true, methods with the same mapped parameters and type parameters share one context class,
+     *                       named after the parameters, see {@link ContextRegistry}.
+     */
+    public void setSharedContexts(final boolean sharedContexts)
+    {
+        this.sharedContexts = sharedContexts;
+    }
+
+    public TypeGraph getTypeGraph()
+    {
+        return typeGraph;
+    }
+
+    /**
+     * @param typeGraph the types of all inputs, decides which super types are generated and which methods are inherited,
+     *                  or null to assume every extended class is generated. The batch generator keeps it up to date.
+     */
+    public void setTypeGraph(final TypeGraph typeGraph)
+    {
+        this.typeGraph = typeGraph;
+    }
+
+    public Path getBenchmarkRoot()
+    {
+        return benchmarkRoot;
+    }
+
+    /**
+     * @param benchmarkRoot the source root to write a JMH benchmark per builder to, or null for no benchmarks. The
+     *                      benchmarks run the frozen pipelines, so they need {@link #setFrozenPipelines(boolean)}.
+     */
+    public void setBenchmarkRoot(final Path benchmarkRoot)
+    {
+        this.benchmarkRoot = benchmarkRoot;
+    }
+}
@@ -0,0 +1,40 @@
+package com.ldtteam.lpg;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the generated sources in memory instead of writing them, for benchmarks and callers that post process the
+ * output themselves.
+ */
+public class InMemoryOutputSink implements OutputSink
+{
+    private final Map<Path, String> files = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean write(final Path target, final String source)
+    {
+        return !source.equals(files.put(target, source));
+    }
+
+    @Override
+    public void delete(final Path target)
+    {
+        files.remove(target);
+    }
+
+    /**
+     * @return the written files and their content.
+     */
+    public Map<Path, String> getFiles()
+    {
+        return Collections.unmodifiableMap(files);
+    }
+
+    public void clear()
+    {
+        files.clear();
+    }
+}
@@ -1,432 +1,308 @@
 package com.ldtteam.lpg;
 
-import com.github.javaparser.JavaParser;
-import com.github.javaparser.ast.CompilationUnit;
-import com.github.javaparser.ast.Modifier;
-import com.github.javaparser.ast.NodeList;
-import com.github.javaparser.ast.body.*;
-import com.github.javaparser.ast.expr.AssignExpr;
-import com.github.javaparser.ast.expr.FieldAccessExpr;
-import com.github.javaparser.ast.expr.NameExpr;
-import com.github.javaparser.ast.expr.ThisExpr;
-import com.github.javaparser.ast.stmt.BlockStmt;
-import com.github.javaparser.ast.stmt.ExpressionStmt;
-import com.github.javaparser.ast.stmt.ReturnStmt;
-import com.github.javaparser.ast.type.ClassOrInterfaceType;
-import com.github.javaparser.ast.type.Type;
-import com.github.javaparser.ast.type.VoidType;
 import com.google.common.collect.Lists;
 import com.google.common.reflect.TypeToken;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 
 import java.io.*;
+import java.nio.file.FileSystem;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 public class Main {
 
-    private static Mapping mappings = null;
+    private static final Gson GSON = new Gson();
+    private static final Pattern SHARD_OPTION = Pattern.compile("(\\d{1,9})/(\\d{1,9})");
 
-    public static void main(String[] args) throws FileNotFoundException
+    @SuppressWarnings("try")
+    public static void main(String[] args) throws IOException, InterruptedException
     {
+        if (args[0].equals("--compile-mappings"))
+        {
+            final MappingStore store = MappingStore.load(getMappingFiles(args[2]));
+            store.write(Paths.get(args[1]));
+            System.out.println("Compiled " + store.size() + " mapping(s) into " + args[1] + ".");
+            return;
+        }
+
+        if (args[0].equals("--merge-manifests"))
+        {
+            final GenerationManifest manifest = GenerationManifest.merge(Arrays.stream(args, 2, args.length).map(Paths::get).collect(Collectors.toList()));
+            manifest.save(Paths.get(args[1]));
+            System.out.println("Merged " + (args.length - 2) + " manifest(s) with " + manifest.getInputs().size() + " input(s) into " + args[1] + ".");
+            return;
+        }
+
         final File inputFile = new File(args[0]);
-        final File mappingFile = new File(args[1]);
+        final List<Path> mappingFiles = getMappingFiles(args[1]);
 
-        final java.lang.reflect.Type mappingsTypeToken = new TypeToken<Map<String, String>>() {}.getType();
-        final Mapping mapping = new Mapping(new GsonBuilder().create().fromJson(new InputStreamReader(new FileInputStream(mappingFile)), mappingsTypeToken));
-        Main.mappings = mapping;
+        final FileSystemOutputSink outputSink = new FileSystemOutputSink();
+        final GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setOutputSink(outputSink);
 
-        final String[] validMethodNames = args.length >= 3 ? Arrays.copyOfRange(args, 2, args.length) : new String[]{"*"};
-        CompilationUnit compilationUnit = new JavaParser().parse(inputFile).getResult().get();
-        generateLogicBuilder(inputFile, compilationUnit, Lists.newArrayList(validMethodNames));
-    }
+        try (GenerationMetrics.Timer ignored = configuration.getMetrics().time(GenerationMetrics.Phase.MAPPING_LOAD, args[1]))
+        {
+            configuration.setMapping(new Mapping(MappingStore.load(mappingFiles)));
+        }
 
+        if (inputFile.isDirectory())
+        {
+            generateSourceTree(inputFile.toPath(), mappingFiles, configuration, outputSink, Arrays.copyOfRange(args, 2, args.length));
+            return;
+        }
 
-    public static void generateLogicBuilder(final File inputFile, final CompilationUnit source, final List<String> validMethodNames)
-    {
-        new ArrayList<>(source.getChildNodes()).stream().filter(n -> n instanceof ClassOrInterfaceDeclaration).forEach(d -> {
-            try
-            {
-                generateInterface(inputFile, source, generateCompileUnit(source.getPackageDeclaration().get().getNameAsString()), ((ClassOrInterfaceDeclaration) d), validMethodNames);
-            }
-            catch (IOException e)
-            {
-                e.printStackTrace();
-            }
-            try
-            {
-                generateLogicBuilder(inputFile, source, generateCompileUnit(source.getPackageDeclaration().get().getNameAsString() + ".logic.builder"), (ClassOrInterfaceDeclaration) d, validMethodNames);
-            }
-            catch (IOException e)
+        if (inputFile.getName().endsWith(".jar") || inputFile.getName().endsWith(".zip"))
+        {
+            try (FileSystem archive = FileSystems.newFileSystem(inputFile.toPath(), (ClassLoader) null))
             {
-                e.printStackTrace();
+                generateSourceTree(archive.getPath("/"), mappingFiles, configuration, outputSink, Arrays.copyOfRange(args, 2, args.length));
             }
-        });
+            return;
+        }
+
+        final List<String> options = Lists.newArrayList(Arrays.copyOfRange(args, 2, args.length));
+        final boolean signaturesOnly = options.remove("--signatures-only");
+        configuration.setFrozenPipelines(options.remove("--frozen-pipelines"));
+        configuration.setReusableContexts(options.remove("--reusable-contexts"));
+        configuration.setPrimitivePipelines(options.remove("--primitive-pipelines"));
+        configuration.setSharedContexts(options.remove("--shared-contexts"));
+        final Path reportFile = removeOption(options, "--report");
+        configuration.setOutputRoot(removeOption(options, "--output"));
+        configuration.setBenchmarkRoot(removeOption(options, "--benchmarks"));
+
+        final List<String> validMethodNames = options.size() >= 1 ? options : Collections.singletonList("*");
+        configuration.setWhitelist(new MethodWhitelist(Collections.singletonMap("*", validMethodNames)));
+
+        new Generator(configuration).generate(inputFile.toPath(), signaturesOnly);
+        writeReport(reportFile, configuration.getMetrics(), outputSink);
     }
 
-    public static void generateInterface(final File inputFile, final CompilationUnit source, final CompilationUnit target, final ClassOrInterfaceDeclaration sourceClass, final List<String> validMethodNames)
-      throws IOException
+    /**
+     * Removes an option and its value from the given options.
+     *
+     * @return the value as path, or null if the option is not present.
+     */
+    private static Path removeOption(final List<String> options, final String option)
     {
-        target.addImport("com.ldtteam.jvoxelizer.core.logic.*");
-        final ClassOrInterfaceDeclaration i = target.addInterface((sourceClass.isInterface() ?  "" : "I") + sourceClass.getNameAsString(), Modifier.Keyword.PUBLIC);
-
-        i.addTypeParameter("I");
-
-        if (sourceClass.getExtendedTypes().size() > 0)
+        final int index = options.indexOf(option);
+        if (index < 0)
         {
-            final ClassOrInterfaceType extended = sourceClass.getExtendedTypes(0);
-            i.addExtendedType( "I" + extended.getName() + "<I>");
+            return null;
         }
-        else
+
+        if (index + 1 >= options.size())
         {
-            i.addExtendedType("IInstancedObject<I>");
+            throw new IllegalArgumentException(option + " needs a value.");
         }
 
-        sourceClass.getImplementedTypes().forEach(i::addExtendedType);
-
-        final List<MethodDeclaration> methodDeclarations = new ArrayList<>(sourceClass.getMethods());
-
-        methodDeclarations.removeIf(m -> m.getModifiers().contains(Modifier.privateModifier()) || m.getModifiers().contains(Modifier.staticModifier()));
-        methodDeclarations.removeIf(m -> m.getNameAsString().startsWith("set"));
-        methodDeclarations.removeIf(m -> !validMethodNames.contains("*") && !validMethodNames.contains(m.getNameAsString()));
-
-        methodDeclarations.forEach(m -> {
-            final MethodDeclaration mNew = i.addMethod(m.getNameAsString()).setType(mappings.processTypeForMapping(m.getType())).setBody(null);
-
-            m.getTypeParameters().forEach(mNew::addTypeParameter);
-            m.getParameters().stream().map(Main::processMethodParameter).forEach(mNew::addParameter);
-        });
-
-        //TODO: Export
-        final File parentDirectory = inputFile.getAbsoluteFile().getParentFile();
-        final File targetFile = new File(parentDirectory.getAbsolutePath() + target.getPackageDeclaration().get().getNameAsString().replace(source.getPackageDeclaration().get().getNameAsString(), "").replace(".", "/").toLowerCase() + "/" + (sourceClass.isInterface() ?  "" : "I") + sourceClass.getNameAsString() + ".java");
-
-        if (targetFile.exists())
-            targetFile.delete();
-
-        targetFile.getParentFile().mkdirs();
-        targetFile.createNewFile();
-
-        Files.write(targetFile.toPath(), target.toString().getBytes());
+        final Path value = Paths.get(options.remove(index + 1));
+        options.remove(index);
+        return value;
     }
 
-    private static Parameter processMethodParameter(final Parameter parameter)
+    /**
+     * Adds the counters of the output sink to the metrics and writes the report of the run, if one was requested.
+     */
+    private static void writeReport(final Path reportFile, final GenerationMetrics metrics, final FileSystemOutputSink outputSink) throws IOException
     {
-        return new Parameter(mappings.processTypeForMapping(parameter.getType()), parameter.getName());
+        if (reportFile == null)
+        {
+            return;
+        }
+
+        metrics.count(GenerationMetrics.Counter.FILES_WRITTEN, outputSink.getWrittenFiles());
+        metrics.count(GenerationMetrics.Counter.FILES_UNCHANGED, outputSink.getUnchangedFiles());
+        metrics.count(GenerationMetrics.Counter.BYTES_WRITTEN, outputSink.getWrittenBytes());
+        metrics.writeReport(reportFile);
     }
 
-    public static void generateLogicBuilder(final File inputFile, final CompilationUnit source, final CompilationUnit builderTarget, final ClassOrInterfaceDeclaration sourceClass, final List<String> validMethodNames)
-      throws IOException
+    /**
+     * Reads a whitelist file, a JSON object from class names to the method names to generate.
+     */
+    private static MethodWhitelist loadWhitelist(final Path whitelistFile) throws IOException
     {
-        final ClassOrInterfaceDeclaration builder = builderTarget.addClass("Abstract" + (sourceClass.isInterface() ? sourceClass.getNameAsString().substring(1) :  sourceClass.getNameAsString()) + "Builder", Modifier.Keyword.PUBLIC, Modifier.Keyword.ABSTRACT);
-
-        builder.addTypeParameter("C extends Abstract" + (sourceClass.isInterface() ? sourceClass.getNameAsString().substring(1) :  sourceClass.getNameAsString()) + "Builder<C, I, O>");
-        builder.addTypeParameter("I");
-
-        if (sourceClass.getExtendedTypes().size() > 0)
+        try (Reader reader = Files.newBufferedReader(whitelistFile, StandardCharsets.UTF_8))
         {
-            final ClassOrInterfaceType extended = sourceClass.getExtendedTypes(0);
-
-            builder.addTypeParameter("O extends I" + extended.getNameAsString() + "<C, I, O>");
-            builder.addExtendedType( "Abstract" + extended.getName() + "Builder<C, I, O>");
-        }
-        else
-        {
-            builder.addTypeParameter("O extends I" + sourceClass.getNameAsString() + "<I>");
+            return new MethodWhitelist(GSON.fromJson(reader, new TypeToken<Map<String, List<String>>>() {}.getType()));
         }
+    }
 
-        final List<MethodDeclaration> methodDeclarations = new ArrayList<>(sourceClass.getMethods());
-        final Map<String, MethodDeclaration> primaryMap = new HashMap<>();
-        final Map<String, List<MethodDeclaration>> overloadMap = new HashMap<>();
-
-        methodDeclarations.removeIf(m -> m.getModifiers().contains(Modifier.privateModifier()) || m.getModifiers().contains(Modifier.staticModifier()));
-        methodDeclarations.removeIf(m -> m.getNameAsString().contains("set"));
-        methodDeclarations.removeIf(m -> !validMethodNames.contains("*") && !validMethodNames.contains(m.getNameAsString()));
-
-        methodDeclarations.sort((o1, o2) -> {
-            final int sortByName = o1.getNameAsString().compareTo(o2.getNameAsString());
-
-            if (sortByName != 0)
-                return sortByName;
-
-            final int sortByParameterCount = o1.getParameters().size() - o2.getParameters().size();
-            if (sortByParameterCount != 0)
-                return sortByParameterCount;
-
-            for (int i = 0; i < o1.getParameters().size(); i++)
-            {
-                final Parameter p1 = processMethodParameter(o1.getParameter(i));
-                final Parameter p2 = processMethodParameter(o2.getParameter(i));
-
-                final int sortByParameterName = p1.getNameAsString().compareTo(p2.getNameAsString());
-                if (sortByParameterName != 0)
-                    return sortByParameterName;
-
-                final int sortByParameterType = p1.getTypeAsString().compareTo(p2.getNameAsString());
-                if (sortByParameterType != 0)
-                    return sortByParameterType;
-            }
-
-            return 0;
-        });
-
-        methodDeclarations.forEach(m -> {
-            primaryMap.putIfAbsent(m.getNameAsString(), m);
-            overloadMap.putIfAbsent(m.getNameAsString(), new LinkedList<>());
-
-            if (primaryMap.get(m.getNameAsString()) != m)
-            {
-                overloadMap.get(m.getNameAsString()).add(m);
-            }
-        });
-
-        primaryMap.entrySet().forEach(e -> {
-            try
-            {
-                generateLogicBuilderMethod(inputFile, source, builderTarget, builder, e.getValue(), e.getKey(), new ArrayList<>());
-            }
-            catch (IOException e1)
-            {
-                e1.printStackTrace();
-            }
+    /**
+     * @param mappingFiles mapping files separated by the path separator, later files override earlier ones.
+     */
+    private static List<Path> getMappingFiles(final String mappingFiles)
+    {
+        return Arrays.stream(mappingFiles.split(File.pathSeparator)).map(Paths::get).collect(Collectors.toList());
+    }
 
-            for (int i = 0; i < overloadMap.get(e.getKey()).size(); i++)
+    /**
+     * Generates a source directory, or the root of an opened source archive.
+     */
+    private static void generateSourceTree(
+      final Path sourceRoot,
+      final List<Path> mappingFiles,
+      final GeneratorConfiguration configuration,
+      final FileSystemOutputSink outputSink,
+      final String[] options) throws IOException, InterruptedException
+    {
+        final List<String> includes = new ArrayList<>();
+        final List<String> excludes = new ArrayList<>();
+        Path manifestFile = null;
+        Path reportFile = null;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        boolean forceRegeneration = false;
+        boolean signaturesOnly = false;
+        boolean watch = false;
+        boolean typeGraph = false;
+        int shard = 1;
+        int shardCount = 1;
+
+        for (int i = 0; i < options.length; i++)
+        {
+            switch (options[i])
             {
-                final MethodDeclaration overload = overloadMap.get(e.getKey()).get(i);
-
-                //Find the smallest overload for j < i;
-                List<String> overloadData = generateOverloadData(e.getValue(), overload);
-                for (int j = 0; j < overloadMap.get(e.getKey()).size() && j < i; j++)
-                {
-                    final MethodDeclaration otherOverload = overloadMap.get(e.getKey()).get(j);
-                    final List<String> overloadDataCandidate = generateOverloadData(otherOverload, overload);
+                case "--include":
+                    includes.add(options[++i]);
+                    break;
+                case "--exclude":
+                    excludes.add(options[++i]);
+                    break;
+                case "--whitelist":
+                    configuration.setWhitelist(loadWhitelist(Paths.get(options[++i])));
+                    break;
+                case "--output":
+                    configuration.setOutputRoot(new File(options[++i]).toPath());
+                    break;
+                case "--benchmarks":
+                    configuration.setBenchmarkRoot(new File(options[++i]).toPath());
+                    break;
+                case "--threads":
+                    parallelism = Integer.parseInt(options[++i]);
+                    break;
+                case "--manifest":
+                    manifestFile = new File(options[++i]).toPath();
+                    break;
+                case "--full":
+                    forceRegeneration = true;
+                    break;
+                case "--signatures-only":
+                    signaturesOnly = true;
+                    break;
+                case "--report":
+                    reportFile = new File(options[++i]).toPath();
+                    break;
+                case "--frozen-pipelines":
+                    configuration.setFrozenPipelines(true);
+                    break;
+                case "--reusable-contexts":
+                    configuration.setReusableContexts(true);
+                    break;
+                case "--primitive-pipelines":
+                    configuration.setPrimitivePipelines(true);
+                    break;
+                case "--shared-contexts":
+                    configuration.setSharedContexts(true);
+                    break;
+                case "--type-graph":
+                    typeGraph = true;
+                    break;
+                case "--shard":
+                    final Matcher shardOption = SHARD_OPTION.matcher(options[++i]);
+                    if (!shardOption.matches())
+                    {
+                        throw new IllegalArgumentException("--shard takes <i>/<n>, got: " + options[i]);
+                    }
 
-                    if (overloadDataCandidate.size() <= overloadData.size())
+                    shard = Integer.parseInt(shardOption.group(1));
+                    shardCount = Integer.parseInt(shardOption.group(2));
+                    if (shard < 1 || shard > shardCount)
                     {
-                        overloadData = overloadDataCandidate;
+                        throw new IllegalArgumentException("--shard <i>/<n> needs 1 <= i <= n, got: " + options[i]);
                     }
-                }
-
-                try
-                {
-                    generateLogicBuilderMethod(inputFile, source, builderTarget, builder, overload, e.getKey(), overloadData);
-                }
-                catch (IOException e1)
-                {
-                    e1.printStackTrace();
-                }
+                    break;
+                case "--watch":
+                    watch = true;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + options[i]);
             }
-        });
+        }
 
-        if (sourceClass.getExtendedTypes().size() == 0)
+        final boolean archive = sourceRoot.getFileSystem() != FileSystems.getDefault();
+        if (archive && configuration.getOutputRoot() == null)
         {
-            builder.addMethod("build", Modifier.Keyword.PUBLIC, Modifier.Keyword.ABSTRACT).setType("I" + sourceClass.getNameAsString() + "<I>").setBody(null).addParameter("I", "guiContext");
+            throw new IllegalArgumentException("Generating a source archive needs an --output directory.");
         }
 
-        //TODO: Export:
-        final File parentDirectory = inputFile.getAbsoluteFile().getParentFile();
-        final File targetFile = new File(parentDirectory.getAbsolutePath() + builderTarget.getPackageDeclaration().get().getNameAsString().replace(source.getPackageDeclaration().get().getNameAsString(), "").replace(".", "/").toLowerCase() + "/Abstract" + (sourceClass.isInterface() ? sourceClass.getNameAsString().substring(1) :  sourceClass.getNameAsString()) + "Builder.java");
-
-        if (targetFile.exists())
-            targetFile.delete();
-
-        targetFile.getParentFile().mkdirs();
-        targetFile.createNewFile();
-
-        Files.write(targetFile.toPath(), builderTarget.toString().getBytes());
-    }
-
-    private static List<String> generateOverloadData(
-      MethodDeclaration primary,
-      MethodDeclaration overload
-    )
-    {
-        final List<String> overloadData = new ArrayList<>();
-
-        for (int i = 0; i < overload.getParameters().size(); i++)
+        if (archive && watch)
         {
-            if (i < primary.getParameters().size())
-            {
-                final Parameter p1 = processMethodParameter(primary.getParameter(i));
-                final Parameter p2 = processMethodParameter(overload.getParameter(i));
-
-                if (!p1.getNameAsString().equals(p2.getNameAsString()) || !p1.getTypeAsString().equals(p2.getTypeAsString()))
-                {
-                    overloadData.add(Capitalize(p2.getNameAsString()) + "As" + Capitalize(getCleanedTypeName(p2.getType())));
-                }
-            }
-            else
-            {
-                final Parameter p2 = processMethodParameter(overload.getParameter(i));
-                overloadData.add(p2.getNameAsString() + "As" + getCleanedTypeName(p2.getType()));
-            }
+            throw new IllegalArgumentException("Only source directories can be watched.");
         }
 
-        return overloadData;
-    }
-
-    public static void generateLogicBuilderMethod(
-      final File inputFile,
-      final CompilationUnit source,
-      final CompilationUnit builderUnit,
-      final ClassOrInterfaceDeclaration builder,
-      final MethodDeclaration method,
-      final String methodName,
-      final List<String> overloadMethodVariableNames) throws IOException
-    {
-        final JavaParser parser = new JavaParser();
-
-        String contextClassName = Capitalize(methodName);
-        if (!overloadMethodVariableNames.isEmpty())
+        //Shards must not take the outputs of other shards for inputs, and need their own manifests.
+        if (shardCount > 1 && configuration.getOutputRoot() == null)
         {
-            contextClassName += "With";
-            for (int i = 0; i < overloadMethodVariableNames.size(); i++)
-            {
-                contextClassName += Capitalize(overloadMethodVariableNames.get(i));
-                if (i != (overloadMethodVariableNames.size() - 1))
-                    contextClassName += "And";
-            }
+            throw new IllegalArgumentException("Sharded generation needs an --output directory.");
         }
-        final String methodNameWithOverloads = contextClassName;
-        contextClassName += "Context";
-
-        builderUnit.addImport(source.getPackageDeclaration().get().getNameAsString() + ".*");
-        builderUnit.addImport(builderUnit.getPackageDeclaration().get().getNameAsString() + ".contexts.*");
-        builderUnit.addImport("java.util.function.Function");
-        builderUnit.addImport("java.util.function.Consumer");
-        builderUnit.addImport("java.util.List");
-        builderUnit.addImport("java.util.ArrayList");
-        builderUnit.addImport("java.util.Arrays");
-        builderUnit.addImport("com.ldtteam.jvoxelizer.core.logic.*");
-
-        final MethodDeclaration logicMethod = builder.addMethod(methodNameWithOverloads, Modifier.Keyword.PUBLIC);
-        logicMethod.setType("C");
-        if (!method.getType().equals(new VoidType()))
+
+        if (shardCount > 1 && watch)
         {
-            //We have a return type.
-            builder.addFieldWithInitializer(parser.parseClassOrInterfaceType(
-              "List<Function<" + getTypedContextClassName(method, contextClassName) + ", " + (method.getTypeParameters()
-                                                                                                .stream()
-                                                                                                .anyMatch(t -> t.getNameAsString().equals(mappings.processTypeForMapping(method.getType()).asString()))
-                                                                                                ? method.getTypeParameters()
-                                                                                                    .stream()
-                                                                                                    .filter(t -> t.getNameAsString().equals(mappings.processTypeForMapping(method.getType()).asString()))
-                                                                                                    .map(t -> t.toString())
-                                                                                                    .findFirst()
-                                                                                                    .orElse("")
-                                                                                                    .replace(
-                                                                                                      mappings.processTypeForMapping(method.getType()).asString(), "?")
-                                                                                                : Capitalize(mappings.processTypeForMapping(method.getType()).asString())) + ">>").getResult().get(), methodNameWithOverloads + "Pipeline", parser.parseExpression("new ArrayList<>()").getResult().get(), Modifier.Keyword.PRIVATE, Modifier.Keyword.FINAL);
-            logicMethod.addAndGetParameter(parser.parseClassOrInterfaceType("Function<"+ getTypedContextClassName(method, contextClassName)+", " + Capitalize(mappings.processTypeForMapping(method.getType()).asString()) + ">").getResult().get(), "components").setVarArgs(true);
-
-            if (method.getTypeParameters().size() > 0)
-            {
-                method.getTypeParameters().forEach(logicMethod::addTypeParameter);
-            }
+            throw new IllegalArgumentException("A shard cannot be watched.");
         }
-        else
+
+        final String shardSuffix = shardCount > 1 ? "-" + shard + "-of-" + shardCount : "";
+        if (manifestFile == null)
         {
-            builder.addFieldWithInitializer(parser.parseClassOrInterfaceType("List<Consumer<" + getVoidContextClassName(method, contextClassName) + ">>").getResult().get(), methodNameWithOverloads + "Pipeline", parser.parseExpression("new ArrayList<>()").getResult().get(), Modifier.Keyword.PRIVATE, Modifier.Keyword.FINAL);
-            logicMethod.addAndGetParameter(parser.parseClassOrInterfaceType("Consumer<" + getVoidContextClassName(method, contextClassName) + ">").getResult().get(), "components").setVarArgs(true);
+            manifestFile = (archive || shardCount > 1 ? configuration.getOutputRoot() : sourceRoot).resolve(".lpg-manifest" + shardSuffix + ".json");
         }
-        logicMethod.setBody(parser.parseBlock("{ \n"
-                                                + "   this." + methodNameWithOverloads + "Pipeline.addAll(Arrays.asList(components));\n"
-                                                + "   return (C) this;\n"
-                                                + "}").getResult().get());
-
-        final CompilationUnit contextTarget = generateCompileUnit(builderUnit.getPackageDeclaration().get().getNameAsString()+".contexts");
-
-        final ClassOrInterfaceDeclaration contextClass = contextTarget.addClass(contextClassName, Modifier.Keyword.PUBLIC);
-
-        method.getTypeParameters().forEach(contextClass::addTypeParameter);
-
-        final ConstructorDeclaration constructorDeclaration = contextClass.addConstructor(Modifier.Keyword.PUBLIC);
-        constructorDeclaration.setBody(new BlockStmt());
-
-        method.getParameters().stream().map(Main::processMethodParameter).forEach(p -> {
-            constructorDeclaration.addParameter(p.getType(), (p.getNameAsString().startsWith("I") ? p.getNameAsString().substring(1) : p.getNameAsString()));
-            constructorDeclaration.getBody().addStatement(new ExpressionStmt(new AssignExpr(new FieldAccessExpr(new ThisExpr(), (p.getNameAsString().startsWith("I") ? p.getNameAsString().substring(1) : p.getNameAsString())), new NameExpr((p.getNameAsString().startsWith("I") ? p.getNameAsString().substring(1) : p.getNameAsString())), AssignExpr.Operator.ASSIGN)));
-
-            //Generate field, getter and setter.
-            final FieldDeclaration backingField = contextClass.addField(p.getType(), (p.getNameAsString().startsWith("I") ? p.getNameAsString().substring(1) : p.getNameAsString()), Modifier.Keyword.PRIVATE);
-            final MethodDeclaration getterMethod = contextClass.addMethod("get" + Capitalize((p.getNameAsString().startsWith("I") ? p.getNameAsString().substring(1) : p.getNameAsString())), Modifier.Keyword.PUBLIC).setType(p.getType());
-            getterMethod.setBody(new BlockStmt(new NodeList<>(new ReturnStmt(new NameExpr((p.getNameAsString().startsWith("I") ? p.getNameAsString().substring(1) : p.getNameAsString()))))));
-
-            final MethodDeclaration setterMethod = contextClass.addMethod("set" + Capitalize((p.getNameAsString().startsWith("I") ? p.getNameAsString().substring(1) : p.getNameAsString())), Modifier.Keyword.PUBLIC);
-            setterMethod.addParameter(p.getType(), (p.getNameAsString().startsWith("I") ? p.getNameAsString().substring(1) : p.getNameAsString()));
-            setterMethod.setBody(new BlockStmt(new NodeList<>(new ExpressionStmt(new AssignExpr(new FieldAccessExpr(new ThisExpr(), (p.getNameAsString().startsWith("I") ? p.getNameAsString().substring(1) : p.getNameAsString())), new NameExpr((p.getNameAsString().startsWith("I") ? p.getNameAsString().substring(1) : p.getNameAsString())), AssignExpr.Operator.ASSIGN)))));
-        });
-
-        //TODO: Export:
-        final File parentDirectory = inputFile.getAbsoluteFile().getParentFile();
-        final File targetFile = new File(parentDirectory.getAbsolutePath() + contextTarget.getPackageDeclaration().get().getNameAsString().replace(source.getPackageDeclaration().get().getNameAsString(), "").replace(".", "/").toLowerCase() + "/" + contextClassName + ".java");
 
-        if (targetFile.exists())
-            targetFile.delete();
-
-        targetFile.getParentFile().mkdirs();
-        targetFile.createNewFile();
-
-        Files.write(targetFile.toPath(), contextTarget.toString().getBytes());
-    }
-
-    private static String getVoidContextClassName(final MethodDeclaration method, final String contextClassName)
-    {
-        return "VoidPipelineElementContext<" + getFullContextClassName(method, contextClassName) + ", O, I>";
-    }
-
-    private static String getTypedContextClassName(final MethodDeclaration method, final String contextClassName)
-    {
-        return "TypedPipelineElementContext<" + getFullContextClassName(method, contextClassName)+", " + (method.getTypeParameters().size() > 0 ? method.getTypeParameters()
-                                                                                                                                                          .stream()
-                                                                                                                                                          .map(p -> p.toString().replace(p.getNameAsString(), "?"))
-                                                                                                                                                          .collect(
-                                                                                                                                                            Collectors.joining(", ")) : Capitalize(mappings.processTypeForMapping(method.getType()).asString())) + ", O, I>";
-    }
-
-    private static  String getShortContextClassName(final MethodDeclaration method, final String contextClassName)
-    {
-        return contextClassName + (method.getTypeParameters().size() > 0 ? "<>": "");
-    }
-
-    private static String getFullContextClassName(final MethodDeclaration method, final String contextClassName)
-    {
-        return contextClassName + (method.getTypeParameters().size() > 0 ? "<" + method.getTypeParameters()
-                                                                                   .stream()
-                                                                                   .map(p -> p.toString().replace(p.getNameAsString(), "?"))
-                                                                                   .collect(
-                                                                                     Collectors.joining(", ")) + ">" : "");
-    }
-
-    private static String getCleanedTypeName(final Type type)
-    {
-        if (type.isClassOrInterfaceType())
+        if (typeGraph)
         {
-            final ClassOrInterfaceType c = type.asClassOrInterfaceType();
-
-            if (c.getTypeArguments().isPresent())
-            {
-                return c.getTypeArguments().get().stream().map(t -> getCleanedTypeName(t)).collect(Collectors.joining()) + c.getNameAsString();
-            }
-
-            return c.asString();
+            configuration.setTypeGraph(new TypeGraph(sourceRoot));
         }
 
-        return type.asString();
-    }
-
-    private static CompilationUnit generateCompileUnit(String packageName)
-    {
-        CompilationUnit cu = new CompilationUnit();
-        cu.setPackageDeclaration(packageName);
+        final BatchGenerator batchGenerator = new BatchGenerator(sourceRoot, new Generator(configuration));
+        batchGenerator.setManifestFile(manifestFile);
+        batchGenerator.setTypeCacheFile(typeGraph ? manifestFile.resolveSibling(".lpg-types" + shardSuffix + ".json") : null);
+        batchGenerator.setMappingFingerprint(GenerationManifest.fingerprint(mappingFiles));
+        batchGenerator.setParallelism(parallelism);
+        batchGenerator.setForceRegeneration(forceRegeneration);
+        batchGenerator.setSignaturesOnly(signaturesOnly);
+        batchGenerator.setShard(shard, shardCount);
+        includes.forEach(batchGenerator::addInclude);
+        excludes.forEach(batchGenerator::addExclude);
+
+        final int failures = batchGenerator.generate();
+        System.out.println("Generated " + batchGenerator.getGeneratedInputs() + " input(s), skipped " + batchGenerator.getSkippedInputs() + " unchanged input(s), pruned "
+                             + batchGenerator.getPrunedOutputs() + " stale file(s).");
+        System.out.println("Wrote " + outputSink.getWrittenFiles() + " file(s), " + outputSink.getUnchangedFiles() + " file(s) were unchanged.");
+
+        final GenerationMetrics metrics = configuration.getMetrics();
+        metrics.count(GenerationMetrics.Counter.INPUTS_GENERATED, batchGenerator.getGeneratedInputs());
+        metrics.count(GenerationMetrics.Counter.INPUTS_SKIPPED, batchGenerator.getSkippedInputs());
+        metrics.count(GenerationMetrics.Counter.FILES_PRUNED, batchGenerator.getPrunedOutputs());
+        writeReport(reportFile, metrics, outputSink);
+
+        if (failures > 0)
+        {
+            System.err.println(failures + " input(s) failed to generate.");
+        }
 
-        return cu;
-    }
+        if (watch)
+        {
+            new WatchDaemon(sourceRoot, mappingFiles, configuration, batchGenerator).run();
+        }
 
-    private static String Capitalize(String string)
-    {
-        return string.substring(0,1).toUpperCase() + (string.length() > 1 ? string.substring(1) : "");
+        if (failures > 0)
+        {
+            System.exit(1);
+        }
     }
 }
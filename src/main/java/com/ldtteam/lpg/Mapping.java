@@ -1,17 +1,37 @@
 package com.ldtteam.lpg;
 
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.ImportDeclaration;
 import com.github.javaparser.ast.NodeList;
 import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import com.github.javaparser.ast.type.ReferenceType;
 import com.github.javaparser.ast.type.Type;
-import com.google.common.collect.Maps;
-import org.checkerframework.checker.units.qual.C;
+import com.github.javaparser.ast.type.WildcardType;
 
+import java.util.Collections;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+/**
+ * Maps source types to their API types.
+ * <p>
+ * A type is looked up as a whole first (NonNullList&lt;ItemStack&gt;), and when that has no mapping its type arguments,
+ * wildcard bounds and array components are mapped on their own (List&lt;Block&gt; becomes List&lt;IBlock&gt;).
+ * Results are cached by a structural key of the type, so repeated lookups of the same type skip the rewriting.
+ * <p>
+ * If the store has fully qualified sources, a type is looked up by its qualified name before its simple name. The
+ * qualified name is the name as written if it has a scope, otherwise it is taken from the single type import of the
+ * compilation unit the type belongs to, or from its package.
+ */
 public class Mapping
 {
-    private Map<String, String> mappings = Maps.newHashMap();
+    private MappingStore store = MappingStore.of(Collections.emptyMap());
+
+    private final Map<String, Type> mappedTypes = new ConcurrentHashMap<>();
+    private final Map<String, Optional<Type>> resolvedTypes = new ConcurrentHashMap<>();
 
     public Mapping()
     {
@@ -19,48 +39,253 @@ public class Mapping
 
     public Mapping(Map<String, String> mappings)
     {
-        this.mappings = mappings;
+        setMappings(mappings);
     }
 
+    public Mapping(MappingStore store)
+    {
+        setStore(store);
+    }
+
+    /**
+     * @return a copy of the mappings.
+     */
     public Map<String, String> getMappings()
     {
-        return mappings;
+        return store.toMap();
     }
 
     public void setMappings(final Map<String, String> mappings)
     {
-        this.mappings = mappings;
+        setStore(MappingStore.of(mappings));
+    }
+
+    public MappingStore getStore()
+    {
+        return store;
+    }
+
+    public void setStore(final MappingStore store)
+    {
+        this.store = store;
+        this.mappedTypes.clear();
+        this.resolvedTypes.clear();
     }
 
+    /**
+     * @return the mapped type, or the given type itself if nothing in it is mapped.
+     */
     public Type processTypeForMapping(Type toProcess)
     {
-        if (!(toProcess.isClassOrInterfaceType()))
+        if (!(toProcess instanceof ReferenceType) || !containsMappedName(toProcess))
         {
             return toProcess;
         }
 
-        final ClassOrInterfaceType classOrInterfaceType = toProcess.asClassOrInterfaceType();
-        final String name = this.processTypeName(classOrInterfaceType);
+        final String key = isPlainName(toProcess) ? qualifiedOrSimpleName(toProcess.asClassOrInterfaceType()) : appendKey(new StringBuilder(32), toProcess).toString();
+        Optional<Type> resolved = resolvedTypes.get(key);
+        if (resolved == null)
+        {
+            resolved = Optional.ofNullable(map(toProcess));
+            resolvedTypes.putIfAbsent(key, resolved);
+        }
 
-        if (!mappings.containsKey(name))
+        return resolved.map(Type::clone).orElse(toProcess);
+    }
+
+    /**
+     * @return the mapped copy of the given type, or null if nothing in it is mapped.
+     */
+    private Type map(final Type type)
+    {
+        if (type.isClassOrInterfaceType())
         {
-            return toProcess;
+            final ClassOrInterfaceType classOrInterfaceType = type.asClassOrInterfaceType();
+            final Type mappedType = getMappedType(classOrInterfaceType);
+            if (mappedType != null)
+            {
+                final Type result = mappedType.clone();
+                result.setAnnotations(type.getAnnotations().stream().map(a -> a.clone()).collect(Collectors.toCollection(NodeList::new)));
+                return result;
+            }
+
+            if (!classOrInterfaceType.getTypeArguments().isPresent())
+            {
+                return null;
+            }
+
+            ClassOrInterfaceType result = null;
+            final NodeList<Type> typeArguments = classOrInterfaceType.getTypeArguments().get();
+            for (int i = 0; i < typeArguments.size(); i++)
+            {
+                final Type mappedArgument = map(typeArguments.get(i));
+                if (mappedArgument != null)
+                {
+                    result = result == null ? classOrInterfaceType.clone() : result;
+                    result.getTypeArguments().get().set(i, mappedArgument);
+                }
+            }
+
+            return result;
+        }
+
+        if (type.isWildcardType())
+        {
+            final WildcardType wildcardType = type.asWildcardType();
+            final Type extendedType = wildcardType.getExtendedType().map(this::map).orElse(null);
+            final Type superType = wildcardType.getSuperType().map(this::map).orElse(null);
+            if (extendedType == null && superType == null)
+            {
+                return null;
+            }
+
+            final WildcardType result = wildcardType.clone();
+            if (extendedType != null)
+            {
+                result.setExtendedType((ReferenceType) extendedType);
+            }
+            if (superType != null)
+            {
+                result.setSuperType((ReferenceType) superType);
+            }
+            return result;
+        }
+
+        if (type.isArrayType())
+        {
+            final Type componentType = map(type.asArrayType().getComponentType());
+            return componentType == null ? null : type.asArrayType().clone().setComponentType(componentType);
+        }
+
+        return null;
+    }
+
+    private boolean containsMappedName(final Type type)
+    {
+        if (type.isClassOrInterfaceType())
+        {
+            final ClassOrInterfaceType classOrInterfaceType = type.asClassOrInterfaceType();
+            return store.containsSimpleName(classOrInterfaceType.getNameAsString())
+                     || classOrInterfaceType.getTypeArguments().map(a -> a.stream().anyMatch(this::containsMappedName)).orElse(false);
+        }
+
+        if (type.isWildcardType())
+        {
+            return type.asWildcardType().getExtendedType().map(this::containsMappedName).orElse(false)
+                     || type.asWildcardType().getSuperType().map(this::containsMappedName).orElse(false);
+        }
+
+        return type.isArrayType() && containsMappedName(type.asArrayType().getComponentType());
+    }
+
+    private Type getMappedType(final ClassOrInterfaceType type)
+    {
+        String target = store.hasQualifiedNames() ? store.get(processTypeName(type, true)) : null;
+        if (target == null)
+        {
+            target = store.get(processTypeName(type, false));
+        }
+
+        return target == null ? null : mappedTypes.computeIfAbsent(target, Mapping::parseMappedType);
+    }
+
+    private String qualifiedOrSimpleName(final ClassOrInterfaceType type)
+    {
+        return store.hasQualifiedNames() ? getQualifiedName(type) : type.getNameAsString();
+    }
+
+    private static String getQualifiedName(final ClassOrInterfaceType type)
+    {
+        if (type.getScope().isPresent())
+        {
+            return type.getScope().get().asString() + "." + type.getNameAsString();
+        }
+
+        final String name = type.getNameAsString();
+        final Optional<CompilationUnit> unit = type.findCompilationUnit();
+        if (!unit.isPresent())
+        {
+            return name;
+        }
+
+        for (final ImportDeclaration importDeclaration : unit.get().getImports())
+        {
+            if (!importDeclaration.isStatic() && !importDeclaration.isAsterisk() && importDeclaration.getName().getIdentifier().equals(name))
+            {
+                return importDeclaration.getNameAsString();
+            }
         }
 
-        final ClassOrInterfaceType mappedType = new ClassOrInterfaceType(mappings.get(name));
-        mappedType.setAnnotations(toProcess.getAnnotations());
+        return unit.get().getPackageDeclaration().map(p -> p.getNameAsString() + "." + name).orElse(name);
+    }
 
-        return mappedType;
+    private static boolean isPlainName(final Type type)
+    {
+        return type.isClassOrInterfaceType()
+                 && type.getAnnotations().isEmpty()
+                 && !type.asClassOrInterfaceType().getScope().isPresent()
+                 && !type.asClassOrInterfaceType().getTypeArguments().isPresent();
+    }
+
+    /**
+     * Appends a key that identifies the structure of the given type, including its annotations.
+     */
+    private StringBuilder appendKey(final StringBuilder key, final Type type)
+    {
+        type.getAnnotations().forEach(a -> key.append(a).append(' '));
+
+        if (type.isClassOrInterfaceType())
+        {
+            final ClassOrInterfaceType classOrInterfaceType = type.asClassOrInterfaceType();
+            classOrInterfaceType.getScope().ifPresent(s -> appendKey(key, s).append('.'));
+            key.append(classOrInterfaceType.getScope().isPresent() ? classOrInterfaceType.getNameAsString() : qualifiedOrSimpleName(classOrInterfaceType));
+            classOrInterfaceType.getTypeArguments().ifPresent(arguments -> {
+                key.append('<');
+                for (int i = 0; i < arguments.size(); i++)
+                {
+                    appendKey(i == 0 ? key : key.append(','), arguments.get(i));
+                }
+                key.append('>');
+            });
+            return key;
+        }
+
+        if (type.isWildcardType())
+        {
+            key.append('?');
+            type.asWildcardType().getExtendedType().ifPresent(t -> appendKey(key.append(" extends "), t));
+            type.asWildcardType().getSuperType().ifPresent(t -> appendKey(key.append(" super "), t));
+            return key;
+        }
+
+        if (type.isArrayType())
+        {
+            return appendKey(key, type.asArrayType().getComponentType()).append("[]");
+        }
+
+        return key.append(type.asString());
+    }
+
+    private static Type parseMappedType(final String target)
+    {
+        try
+        {
+            return Parsers.parse(p -> p.parseClassOrInterfaceType(target));
+        }
+        catch (ParseProblemException e)
+        {
+            return new ClassOrInterfaceType(null, target);
+        }
     }
 
-    private String processTypeName(ClassOrInterfaceType classOrInterfaceType)
+    private String processTypeName(ClassOrInterfaceType classOrInterfaceType, boolean qualified)
     {
-        String name = classOrInterfaceType.getNameAsString();
+        String name = qualified ? getQualifiedName(classOrInterfaceType) : classOrInterfaceType.getNameAsString();
         if (classOrInterfaceType.getTypeArguments().isPresent())
         {
             final NodeList<Type> types = classOrInterfaceType.getTypeArguments().get();
             name += "<";
-            name += types.stream().filter(type->type.isClassOrInterfaceType()).map(type -> processTypeName(type.asClassOrInterfaceType())).collect(Collectors.joining(", "));
+            name += types.stream().filter(type->type.isClassOrInterfaceType()).map(type -> processTypeName(type.asClassOrInterfaceType(), qualified)).collect(Collectors.joining(", "));
             name += ">";
         }
 
@@ -0,0 +1,469 @@
+package com.ldtteam.lpg;
+
+import com.google.gson.stream.JsonReader;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable table of type name mappings, built for tables with tens of thousands of entries.
+ * <p>
+ * Names are stored as sequences of interned segments (the parts between the dots), so package prefixes and names that
+ * occur in many entries are stored once, as UTF-8. Lookups go through an open addressing table of entry indices keyed by
+ * the hash of the source name and compare the segment bytes in place. The binary form written by {@link #write(Path)} is
+ * mapped into memory and used as it is, loading it does not decode or copy anything.
+ * <p>
+ * Source names are either simple (Block, NonNullList&lt;ItemStack&gt;) or fully qualified
+ * (net.minecraft.block.Block, net.minecraft.util.NonNullList&lt;net.minecraft.item.ItemStack&gt;).
+ */
+public final class MappingStore
+{
+    private static final int MAGIC   = 0x4C50474D;
+    private static final int VERSION = 1;
+
+    private static final int QUALIFIED_NAMES = 1;
+
+    /**
+     * Hash of the source name, offset and length of the source name segments, offset and length of the target name segments.
+     */
+    private static final int ENTRY_SIZE = 5;
+
+    private final int        flags;
+    private final ByteBuffer segmentBytes;
+    private final IntBuffer  segmentOffsets;
+    private final IntBuffer  nameSegments;
+    private final IntBuffer  entries;
+    private final IntBuffer  slots;
+    private final IntBuffer  simpleNameHashes;
+
+    private MappingStore(
+      final int flags,
+      final ByteBuffer segmentBytes,
+      final IntBuffer segmentOffsets,
+      final IntBuffer nameSegments,
+      final IntBuffer entries,
+      final IntBuffer slots,
+      final IntBuffer simpleNameHashes)
+    {
+        this.flags = flags;
+        this.segmentBytes = segmentBytes;
+        this.segmentOffsets = segmentOffsets;
+        this.nameSegments = nameSegments;
+        this.entries = entries;
+        this.slots = slots;
+        this.simpleNameHashes = simpleNameHashes;
+    }
+
+    /**
+     * Loads and merges the given mapping files, JSON objects or the binary form, in order. A file overrides the entries of
+     * the files before it.
+     */
+    public static MappingStore load(final List<Path> files) throws IOException
+    {
+        if (files.size() == 1 && isBinary(files.get(0)))
+        {
+            return readBinary(files.get(0));
+        }
+
+        final Builder builder = new Builder();
+        for (final Path file : files)
+        {
+            builder.read(file);
+        }
+
+        return builder.build();
+    }
+
+    public static MappingStore of(final Map<String, String> mappings)
+    {
+        final Builder builder = new Builder();
+        mappings.forEach(builder::put);
+        return builder.build();
+    }
+
+    /**
+     * @return the target of the given source name, or null if it is not mapped.
+     */
+    public String get(final String source)
+    {
+        final int hash = source.hashCode();
+        final int mask = slots.capacity() - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask)
+        {
+            final int entry = slots.get(slot) - 1;
+            if (entry < 0)
+            {
+                return null;
+            }
+
+            final int base = entry * ENTRY_SIZE;
+            if (entries.get(base) == hash && nameEquals(entries.get(base + 1), entries.get(base + 2), source))
+            {
+                return name(entries.get(base + 3), entries.get(base + 4));
+            }
+        }
+    }
+
+    /**
+     * Fast check whether the given simple name may be the simple name of any source, qualified or not.
+     *
+     * @return false if no source has the given simple name.
+     */
+    public boolean containsSimpleName(final String simpleName)
+    {
+        final int hash = simpleName.hashCode();
+        int low = 0;
+        int high = simpleNameHashes.capacity() - 1;
+        while (low <= high)
+        {
+            final int middle = (low + high) >>> 1;
+            final int middleHash = simpleNameHashes.get(middle);
+            if (middleHash < hash)
+            {
+                low = middle + 1;
+            }
+            else if (middleHash > hash)
+            {
+                high = middle - 1;
+            }
+            else
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public boolean hasQualifiedNames()
+    {
+        return (flags & QUALIFIED_NAMES) != 0;
+    }
+
+    public int size()
+    {
+        return entries.capacity() / ENTRY_SIZE;
+    }
+
+    public void forEach(final BiConsumer<String, String> consumer)
+    {
+        for (int base = 0; base < entries.capacity(); base += ENTRY_SIZE)
+        {
+            consumer.accept(name(entries.get(base + 1), entries.get(base + 2)), name(entries.get(base + 3), entries.get(base + 4)));
+        }
+    }
+
+    public Map<String, String> toMap()
+    {
+        final Map<String, String> mappings = new LinkedHashMap<>();
+        forEach(mappings::put);
+        return mappings;
+    }
+
+    /**
+     * Writes the binary form of this store.
+     */
+    public void write(final Path file) throws IOException
+    {
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file))))
+        {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(flags);
+
+            output.writeInt(segmentBytes.capacity());
+            for (int i = 0; i < segmentBytes.capacity(); i++)
+            {
+                output.writeByte(segmentBytes.get(i));
+            }
+            for (int i = segmentBytes.capacity(); i % Integer.BYTES != 0; i++)
+            {
+                output.writeByte(0);
+            }
+
+            for (final IntBuffer table : Arrays.asList(segmentOffsets, nameSegments, entries, slots, simpleNameHashes))
+            {
+                output.writeInt(table.capacity());
+                for (int i = 0; i < table.capacity(); i++)
+                {
+                    output.writeInt(table.get(i));
+                }
+            }
+        }
+    }
+
+    private static boolean isBinary(final Path file) throws IOException
+    {
+        try (InputStream input = Files.newInputStream(file))
+        {
+            final byte[] header = new byte[4];
+            return input.read(header) == header.length && ByteBuffer.wrap(header).getInt() == MAGIC;
+        }
+    }
+
+    private static MappingStore readBinary(final Path file) throws IOException
+    {
+        final ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        buffer.getInt();
+        final int version = buffer.getInt();
+        if (version != VERSION)
+        {
+            throw new IOException("Unsupported mapping file version " + version + ": " + file);
+        }
+
+        final int flags = buffer.getInt();
+        final int segmentBytesLength = buffer.getInt();
+        final ByteBuffer segmentBytes = buffer.slice();
+        segmentBytes.limit(segmentBytesLength);
+        buffer.position(buffer.position() + (segmentBytesLength + Integer.BYTES - 1) / Integer.BYTES * Integer.BYTES);
+
+        return new MappingStore(flags, segmentBytes.slice(), readTable(buffer), readTable(buffer), readTable(buffer), readTable(buffer), readTable(buffer));
+    }
+
+    private static IntBuffer readTable(final ByteBuffer buffer)
+    {
+        final int size = buffer.getInt();
+        final ByteBuffer table = buffer.slice();
+        table.limit(size * Integer.BYTES);
+        buffer.position(buffer.position() + size * Integer.BYTES);
+        return table.asIntBuffer();
+    }
+
+    private static int spread(final int hash)
+    {
+        return hash ^ (hash >>> 16);
+    }
+
+    private boolean nameEquals(final int offset, final int length, final String name)
+    {
+        int position = 0;
+        for (int i = 0; i < length; i++)
+        {
+            if (i > 0)
+            {
+                if (position >= name.length() || name.charAt(position) != '.')
+                {
+                    return false;
+                }
+                position++;
+            }
+
+            final int segment = nameSegments.get(offset + i);
+            final int start = segmentOffsets.get(segment);
+            final int end = segmentOffsets.get(segment + 1);
+            for (int index = start; index < end; index++)
+            {
+                final byte current = segmentBytes.get(index);
+                if (current < 0)
+                {
+                    //Not ASCII, compare the decoded remainder of the segment instead.
+                    final String remainder = decode(index, end);
+                    if (!name.startsWith(remainder, position))
+                    {
+                        return false;
+                    }
+                    position += remainder.length();
+                    break;
+                }
+
+                if (position >= name.length() || name.charAt(position++) != current)
+                {
+                    return false;
+                }
+            }
+        }
+
+        return position == name.length();
+    }
+
+    private String name(final int offset, final int length)
+    {
+        final StringBuilder name = new StringBuilder();
+        for (int i = 0; i < length; i++)
+        {
+            if (i > 0)
+            {
+                name.append('.');
+            }
+
+            final int segment = nameSegments.get(offset + i);
+            name.append(decode(segmentOffsets.get(segment), segmentOffsets.get(segment + 1)));
+        }
+
+        return name.toString();
+    }
+
+    private String decode(final int start, final int end)
+    {
+        final byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++)
+        {
+            bytes[i] = segmentBytes.get(start + i);
+        }
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Collects mappings, a later entry for the same source replaces the earlier one.
+     */
+    public static final class Builder
+    {
+        private final Map<String, String> mappings = new LinkedHashMap<>();
+
+        public Builder put(final String source, final String target)
+        {
+            mappings.put(source, target);
+            return this;
+        }
+
+        /**
+         * Adds all entries of a mapping file, either a JSON object of source to target names or the binary form.
+         */
+        public Builder read(final Path file) throws IOException
+        {
+            if (isBinary(file))
+            {
+                readBinary(file).forEach(this::put);
+                return this;
+            }
+
+            try (JsonReader reader = new JsonReader(Files.newBufferedReader(file, StandardCharsets.UTF_8)))
+            {
+                reader.beginObject();
+                while (reader.hasNext())
+                {
+                    put(reader.nextName(), reader.nextString());
+                }
+                reader.endObject();
+            }
+
+            return this;
+        }
+
+        public MappingStore build()
+        {
+            final Map<String, Integer> segmentIds = new HashMap<>();
+            final Map<String, Integer> nameOffsets = new HashMap<>();
+            byte[] segmentBytes = new byte[mappings.size() * 16];
+            int segmentBytesSize = 0;
+            int[] segmentOffsets = new int[mappings.size() + 1];
+            int[] nameSegments = new int[mappings.size() * 2];
+            int nameSegmentsSize = 0;
+            int flags = 0;
+
+            final int[] entries = new int[mappings.size() * ENTRY_SIZE];
+            final int[] simpleNameHashes = new int[mappings.size()];
+            int base = 0;
+            for (final Map.Entry<String, String> mapping : mappings.entrySet())
+            {
+                simpleNameHashes[base / ENTRY_SIZE] = simpleName(mapping.getKey()).hashCode();
+                entries[base] = mapping.getKey().hashCode();
+                if (mapping.getKey().indexOf('.') >= 0)
+                {
+                    flags |= QUALIFIED_NAMES;
+                }
+
+                for (final String name : Arrays.asList(mapping.getKey(), mapping.getValue()))
+                {
+                    final String[] nameParts = name.split("\\.", -1);
+                    Integer offset = nameOffsets.get(name);
+                    if (offset == null)
+                    {
+                        offset = nameSegmentsSize;
+                        nameOffsets.put(name, offset);
+                        if (nameSegments.length < nameSegmentsSize + nameParts.length)
+                        {
+                            nameSegments = Arrays.copyOf(nameSegments, Math.max(nameSegments.length * 2, nameSegmentsSize + nameParts.length));
+                        }
+
+                        for (final String part : nameParts)
+                        {
+                            Integer id = segmentIds.get(part);
+                            if (id == null)
+                            {
+                                id = segmentIds.size();
+                                segmentIds.put(part, id);
+
+                                final byte[] bytes = part.getBytes(StandardCharsets.UTF_8);
+                                if (segmentBytes.length < segmentBytesSize + bytes.length)
+                                {
+                                    segmentBytes = Arrays.copyOf(segmentBytes, Math.max(segmentBytes.length * 2, segmentBytesSize + bytes.length));
+                                }
+                                System.arraycopy(bytes, 0, segmentBytes, segmentBytesSize, bytes.length);
+                                segmentBytesSize += bytes.length;
+
+                                if (segmentOffsets.length < id + 2)
+                                {
+                                    segmentOffsets = Arrays.copyOf(segmentOffsets, segmentOffsets.length * 2);
+                                }
+                                segmentOffsets[id + 1] = segmentBytesSize;
+                            }
+                            nameSegments[nameSegmentsSize++] = id;
+                        }
+                    }
+
+                    entries[++base] = offset;
+                    entries[++base] = nameParts.length;
+                }
+                base++;
+            }
+
+            int capacity = 2;
+            while (capacity < mappings.size() * 2)
+            {
+                capacity <<= 1;
+            }
+
+            final int[] slots = new int[capacity];
+            for (int entry = 0; entry < mappings.size(); entry++)
+            {
+                int slot = spread(entries[entry * ENTRY_SIZE]) & (capacity - 1);
+                while (slots[slot] != 0)
+                {
+                    slot = (slot + 1) & (capacity - 1);
+                }
+                slots[slot] = entry + 1;
+            }
+
+            return new MappingStore(flags,
+              ByteBuffer.wrap(Arrays.copyOf(segmentBytes, segmentBytesSize)),
+              IntBuffer.wrap(Arrays.copyOf(segmentOffsets, segmentIds.size() + 1)),
+              IntBuffer.wrap(Arrays.copyOf(nameSegments, nameSegmentsSize)),
+              IntBuffer.wrap(entries),
+              IntBuffer.wrap(slots),
+              IntBuffer.wrap(Arrays.stream(simpleNameHashes).sorted().distinct().toArray()));
+        }
+
+        /**
+         * @return the simple name of the raw type of the given name, Block for net.minecraft.block.Block and NonNullList
+         * for NonNullList&lt;ItemStack&gt;.
+         */
+        private static String simpleName(final String name)
+        {
+            final int typeArguments = name.indexOf('<');
+            final String rawName = typeArguments < 0 ? name : name.substring(0, typeArguments);
+            return rawName.substring(rawName.lastIndexOf('.') + 1);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.ldtteam.lpg;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.google.common.collect.Maps;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per class method whitelist, keyed by fully qualified or simple class name.
+ * The "*" key acts as the default for classes that are not listed explicitly.
+ */
+public class MethodWhitelist
+{
+    private static final String WILDCARD = "*";
+    private static final List<String> ALL_METHODS = Collections.singletonList(WILDCARD);
+
+    private Map<String, List<String>> methodsByClass = Maps.newHashMap();
+
+    public MethodWhitelist()
+    {
+    }
+
+    public MethodWhitelist(final Map<String, List<String>> methodsByClass)
+    {
+        this.methodsByClass = methodsByClass;
+    }
+
+    public Map<String, List<String>> getMethodsByClass()
+    {
+        return methodsByClass;
+    }
+
+    public List<String> getValidMethodNames(final CompilationUnit source, final ClassOrInterfaceDeclaration sourceClass)
+    {
+        final String simpleName = sourceClass.getNameAsString();
+        return getValidMethodNames(source.getPackageDeclaration().map(p -> p.getNameAsString() + "." + simpleName).orElse(simpleName));
+    }
+
+    public List<String> getValidMethodNames(final String qualifiedName)
+    {
+        final String simpleName = qualifiedName.substring(qualifiedName.lastIndexOf('.') + 1);
+
+        if (methodsByClass.containsKey(qualifiedName))
+        {
+            return methodsByClass.get(qualifiedName);
+        }
+
+        if (methodsByClass.containsKey(simpleName))
+        {
+            return methodsByClass.get(simpleName);
+        }
+
+        return methodsByClass.getOrDefault(WILDCARD, ALL_METHODS);
+    }
+}
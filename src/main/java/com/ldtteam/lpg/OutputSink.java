@@ -0,0 +1,22 @@
+package com.ldtteam.lpg;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Destination of the generated compilation units.
+ */
+public interface OutputSink
+{
+    /**
+     * Writes the printed source of a generated unit to the given target.
+     *
+     * @return true when the target changed, false when it already had the exact same content.
+     */
+    boolean write(Path target, String source) throws IOException;
+
+    /**
+     * Removes a previously generated target.
+     */
+    void delete(Path target) throws IOException;
+}
@@ -0,0 +1,85 @@
+package com.ldtteam.lpg;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Function;
+
+/**
+ * One configured parser per thread, shared by the source parsing and the code fragments of the generator.
+ * <p>
+ * The generator never looks at comments, tokens or the original layout, so comment attribution, token storage and
+ * lexical preservation are turned off. The language level is pinned to the level of the decompiled sources.
+ * The string based helpers of the AST (addImport(String), setType(String), ...) all share one static parser,
+ * which breaks as soon as several generators run in parallel, so fragments have to go through here as well.
+ */
+public final class Parsers
+{
+    private static final ThreadLocal<JavaParser> PARSER = ThreadLocal.withInitial(() -> new JavaParser(createConfiguration()));
+
+    private Parsers()
+    {
+    }
+
+    public static ParserConfiguration createConfiguration()
+    {
+        return new ParserConfiguration()
+                 .setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_8)
+                 .setAttributeComments(false)
+                 .setStoreTokens(false)
+                 .setLexicalPreservationEnabled(false);
+    }
+
+    public static JavaParser get()
+    {
+        return PARSER.get();
+    }
+
+    /**
+     * Parses a source file.
+     *
+     * @param signaturesOnly if true, method and initializer bodies are dropped before parsing.
+     */
+    public static ParseResult<CompilationUnit> parse(final Path file, final boolean signaturesOnly) throws IOException
+    {
+        if (!signaturesOnly)
+        {
+            return get().parse(file);
+        }
+
+        return parse(Files.readAllBytes(file), true);
+    }
+
+    /**
+     * Parses the UTF-8 content of a source file.
+     *
+     * @param signaturesOnly if true, method and initializer bodies are dropped before parsing.
+     */
+    public static ParseResult<CompilationUnit> parse(final byte[] content, final boolean signaturesOnly)
+    {
+        final String source = new String(content, StandardCharsets.UTF_8);
+        return get().parse(signaturesOnly ? SignatureOnlySource.strip(source) : source);
+    }
+
+    /**
+     * Parses a fragment, failing on any problem.
+     */
+    public static <N extends Node> N parse(final Function<JavaParser, ParseResult<N>> parse)
+    {
+        final ParseResult<N> result = parse.apply(get());
+        if (!result.isSuccessful())
+        {
+            throw new ParseProblemException(result.getProblems());
+        }
+
+        return result.getResult().get();
+    }
+}
@@ -0,0 +1,245 @@
+package com.ldtteam.lpg;
+
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.type.Type;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The mapped parameter signatures of the methods of one class, computed once per method.
+ * <p>
+ * Overloads are named after the parameters that distinguish them from the earlier overload (or the primary method) they
+ * differ least from. Instead of comparing every overload with every earlier one, the earlier signatures are kept in a
+ * tree of parameters and only the branches that can still beat the best match are searched.
+ */
+public class SignatureIndex
+{
+    private final Map<String, Integer>               parameterIndex = new HashMap<>();
+    private final Map<MethodDeclaration, Signature> signatures     = new IdentityHashMap<>();
+
+    public SignatureIndex(final Collection<MethodDeclaration> methods, final Function<Type, Type> mapping)
+    {
+        methods.forEach(m -> signatures.put(m, new Signature(m, mapping)));
+    }
+
+    /**
+     * Orders methods by name, parameter count and then by the names and mapped types of their parameters.
+     * <p>
+     * Like the original ordering, the mapped type of a parameter is compared with the name of the other parameter. This
+     * is not a consistent ordering, but it decides which overload is primary and how the overloads are named, so it is
+     * kept to generate the same builder methods and contexts.
+     */
+    public Comparator<MethodDeclaration> comparator()
+    {
+        return (o1, o2) -> {
+            final int sortByName = o1.getNameAsString().compareTo(o2.getNameAsString());
+            if (sortByName != 0)
+                return sortByName;
+
+            final Signature s1 = signatures.get(o1);
+            final Signature s2 = signatures.get(o2);
+
+            final int sortByParameterCount = s1.size() - s2.size();
+            if (sortByParameterCount != 0)
+                return sortByParameterCount;
+
+            for (int i = 0; i < s1.size(); i++)
+            {
+                final int sortByParameterName = s1.names[i].compareTo(s2.names[i]);
+                if (sortByParameterName != 0)
+                    return sortByParameterName;
+
+                final int sortByParameterType = s1.typeNames[i].compareTo(s2.names[i]);
+                if (sortByParameterType != 0)
+                    return sortByParameterType;
+            }
+
+            return 0;
+        };
+    }
+
+    /**
+     * Computes the names of the parameters that identify each overload of one method.
+     * <p>
+     * An overload is compared with the primary method and all overloads before it. It is named after the one that needs
+     * the fewest names, the last one of those on a tie: each parameter that differs in name or mapped type, and each
+     * parameter beyond the end of the other method.
+     *
+     * @param primary   the method that is generated without overload names.
+     * @param overloads the other methods with the same name, in generation order.
+     * @return the names for each overload, in the same order.
+     */
+    public List<List<String>> getOverloadData(final MethodDeclaration primary, final List<MethodDeclaration> overloads)
+    {
+        final List<Signature> candidates = new ArrayList<>();
+        final OverloadNode root = new OverloadNode();
+        candidates.add(signatures.get(primary));
+        root.insert(signatures.get(primary), 0);
+
+        final List<List<String>> overloadData = new ArrayList<>();
+        for (final MethodDeclaration overload : overloads)
+        {
+            final Signature signature = signatures.get(overload);
+            final OverloadMatch match = new OverloadMatch(signature);
+            match.search(root, 0, 0);
+            overloadData.add(signature.getOverloadData(candidates.get(match.candidate)));
+
+            root.insert(signature, candidates.size());
+            candidates.add(signature);
+        }
+
+        return overloadData;
+    }
+
+    private class Signature
+    {
+        private final String[] names;
+        private final String[] typeNames;
+        private final int[]    parameterIds;
+        private final String[] distinguishingNames;
+        private final String[] additionalNames;
+
+        private Signature(final MethodDeclaration method, final Function<Type, Type> mapping)
+        {
+            final int size = method.getParameters().size();
+            names = new String[size];
+            typeNames = new String[size];
+            parameterIds = new int[size];
+            distinguishingNames = new String[size];
+            additionalNames = new String[size];
+
+            for (int i = 0; i < size; i++)
+            {
+                final Parameter parameter = method.getParameter(i);
+                final Type type = mapping.apply(parameter.getType());
+                final String cleanedTypeName = Generator.getCleanedTypeName(type);
+
+                names[i] = parameter.getNameAsString();
+                typeNames[i] = type.asString();
+                parameterIds[i] = parameterIndex.computeIfAbsent(names[i] + " " + typeNames[i], k -> parameterIndex.size());
+                distinguishingNames[i] = Generator.Capitalize(names[i]) + "As" + Generator.Capitalize(cleanedTypeName);
+                additionalNames[i] = names[i] + "As" + cleanedTypeName;
+            }
+        }
+
+        private int size()
+        {
+            return names.length;
+        }
+
+        private List<String> getOverloadData(final Signature other)
+        {
+            final List<String> overloadData = new ArrayList<>();
+            for (int i = 0; i < size(); i++)
+            {
+                if (i >= other.size())
+                {
+                    overloadData.add(additionalNames[i]);
+                }
+                else if (parameterIds[i] != other.parameterIds[i])
+                {
+                    overloadData.add(distinguishingNames[i]);
+                }
+            }
+
+            return overloadData;
+        }
+    }
+
+    /**
+     * Node of the tree of parameter ids of the candidate signatures.
+     */
+    private static class OverloadNode
+    {
+        private final Map<Integer, OverloadNode> children = new HashMap<>();
+
+        /**
+         * The last candidate that ends at this node, or -1.
+         */
+        private int lastEnding = -1;
+
+        /**
+         * The last candidate that ends at or below this node.
+         */
+        private int lastBelow = -1;
+
+        private void insert(final Signature signature, final int candidate)
+        {
+            OverloadNode node = this;
+            node.lastBelow = candidate;
+            for (final int parameterId : signature.parameterIds)
+            {
+                node = node.children.computeIfAbsent(parameterId, k -> new OverloadNode());
+                node.lastBelow = candidate;
+            }
+            node.lastEnding = candidate;
+        }
+    }
+
+    /**
+     * Search for the candidate that needs the fewest overload names for one signature.
+     */
+    private static class OverloadMatch
+    {
+        private final Signature signature;
+        private       int       cost      = Integer.MAX_VALUE;
+        private       int       candidate = -1;
+
+        private OverloadMatch(final Signature signature)
+        {
+            this.signature = signature;
+        }
+
+        private void search(final OverloadNode node, final int depth, final int differences)
+        {
+            if (differences > cost)
+            {
+                return;
+            }
+
+            if (depth == signature.size())
+            {
+                //Parameters past the end of the signature do not add names.
+                consider(differences, node.lastBelow);
+                return;
+            }
+
+            if (node.lastEnding >= 0)
+            {
+                consider(differences + signature.size() - depth, node.lastEnding);
+            }
+
+            final int parameterId = signature.parameterIds[depth];
+            final OverloadNode same = node.children.get(parameterId);
+            if (same != null)
+            {
+                search(same, depth + 1, differences);
+            }
+
+            for (final Map.Entry<Integer, OverloadNode> child : node.children.entrySet())
+            {
+                if (child.getKey() != parameterId)
+                {
+                    search(child.getValue(), depth + 1, differences + 1);
+                }
+            }
+        }
+
+        private void consider(final int candidateCost, final int candidateIndex)
+        {
+            if (candidateCost < cost || (candidateCost == cost && candidateIndex > candidate))
+            {
+                cost = candidateCost;
+                candidate = candidateIndex;
+            }
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.ldtteam.lpg;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Lexical pre-pass that empties method, constructor and initializer bodies before the source reaches the parser.
+ * <p>
+ * Only declarations, type parameters and parameters feed the generated output, the bodies are the bulk of the parse
+ * time and heap of large decompiled classes. Type bodies are kept, and so are braces that belong to field initializers,
+ * annotation values or anything inside parentheses. Literals and comments are skipped while scanning.
+ */
+public final class SignatureOnlySource
+{
+    private SignatureOnlySource()
+    {
+    }
+
+    public static String strip(final String source)
+    {
+        final StringBuilder out = new StringBuilder(source.length());
+        final Deque<MemberHeader> enclosingHeaders = new ArrayDeque<>();
+        MemberHeader header = new MemberHeader();
+
+        int i = 0;
+        while (i < source.length())
+        {
+            final int literalEnd = skipLiteralOrComment(source, i);
+            if (literalEnd != i)
+            {
+                out.append(source, i, literalEnd);
+                i = literalEnd;
+                continue;
+            }
+
+            final char c = source.charAt(i);
+            if (Character.isJavaIdentifierStart(c))
+            {
+                int end = i + 1;
+                while (end < source.length() && Character.isJavaIdentifierPart(source.charAt(end)))
+                {
+                    end++;
+                }
+
+                header.onIdentifier(source.substring(i, end));
+                out.append(source, i, end);
+                i = end;
+                continue;
+            }
+
+            switch (c)
+            {
+                case '(':
+                    header.parenthesisDepth++;
+                    break;
+                case ')':
+                    header.parenthesisDepth--;
+                    break;
+                case '=':
+                    header.keepsBody |= header.parenthesisDepth == 0;
+                    break;
+                case ';':
+                    if (header.parenthesisDepth == 0)
+                    {
+                        header.reset();
+                        out.append(c);
+                        i++;
+                        continue;
+                    }
+                    break;
+                case '{':
+                    final int blockEnd = skipBlock(source, i);
+                    if (header.parenthesisDepth > 0 || header.keepsBody)
+                    {
+                        out.append(source, i, blockEnd);
+                        i = blockEnd;
+                        header.previous = '}';
+                    }
+                    else if (header.declaresType)
+                    {
+                        enclosingHeaders.push(header);
+                        header = new MemberHeader();
+                        out.append(c);
+                        i++;
+                    }
+                    else
+                    {
+                        out.append("{}");
+                        i = blockEnd;
+                        header.reset();
+                    }
+                    continue;
+                case '}':
+                    header = enclosingHeaders.isEmpty() ? new MemberHeader() : enclosingHeaders.pop();
+                    header.reset();
+                    out.append(c);
+                    i++;
+                    continue;
+                default:
+                    break;
+            }
+
+            if (!Character.isWhitespace(c))
+            {
+                header.previous = c;
+            }
+
+            out.append(c);
+            i++;
+        }
+
+        return out.toString();
+    }
+
+    /**
+     * @return the index after the block that starts at the given opening brace, or the end of the source if it is not closed.
+     */
+    private static int skipBlock(final String source, final int start)
+    {
+        int depth = 0;
+        int i = start;
+        while (i < source.length())
+        {
+            final int literalEnd = skipLiteralOrComment(source, i);
+            if (literalEnd != i)
+            {
+                i = literalEnd;
+                continue;
+            }
+
+            final char c = source.charAt(i++);
+            if (c == '{')
+            {
+                depth++;
+            }
+            else if (c == '}' && --depth == 0)
+            {
+                return i;
+            }
+        }
+
+        return source.length();
+    }
+
+    /**
+     * @return the index after the literal or comment at the given index, or the index itself if there is none.
+     */
+    private static int skipLiteralOrComment(final String source, final int start)
+    {
+        final char c = source.charAt(start);
+        final char next = start + 1 < source.length() ? source.charAt(start + 1) : 0;
+
+        if (c == '/' && next == '/')
+        {
+            final int end = source.indexOf('\n', start);
+            return end < 0 ? source.length() : end;
+        }
+
+        if (c == '/' && next == '*')
+        {
+            final int end = source.indexOf("*/", start + 2);
+            return end < 0 ? source.length() : end + 2;
+        }
+
+        if (c == '"' || c == '\'')
+        {
+            int i = start + 1;
+            while (i < source.length())
+            {
+                final char current = source.charAt(i);
+                if (current == '\\')
+                {
+                    i += 2;
+                }
+                else if (current == c || current == '\n')
+                {
+                    return i + 1;
+                }
+                else
+                {
+                    i++;
+                }
+            }
+
+            return source.length();
+        }
+
+        return start;
+    }
+
+    /**
+     * State of the member declaration that is currently being scanned inside a type body.
+     */
+    private static class MemberHeader
+    {
+        private int parenthesisDepth = 0;
+        private boolean declaresType = false;
+        private boolean keepsBody = false;
+        private char previous = 0;
+
+        private void onIdentifier(final String identifier)
+        {
+            if (parenthesisDepth == 0 && previous != '.')
+            {
+                switch (identifier)
+                {
+                    case "class":
+                    case "interface":
+                    case "enum":
+                        declaresType = true;
+                        break;
+                    case "default":
+                        keepsBody = true;
+                        break;
+                    default:
+                        break;
+                }
+            }
+
+            previous = 'a';
+        }
+
+        private void reset()
+        {
+            parenthesisDepth = 0;
+            declaresType = false;
+            keepsBody = false;
+            previous = 0;
+        }
+    }
+}
@@ -0,0 +1,499 @@
+package com.ldtteam.lpg;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.ImportDeclaration;
+import com.github.javaparser.ast.Modifier;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.model.resolution.SymbolReference;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * The top level types of all inputs of a source tree, with their super class and the methods they could generate.
+ * <p>
+ * Super classes are resolved by the symbol solver against the sources below the source root, which can be an archive, and
+ * the JRE, so nested, qualified, statically imported and parameterized super classes resolve like the compiler resolves
+ * them. A class whose super class is not an input has no generated super type, its interface and builder become roots.
+ * Methods that a generated ancestor already declares with the same parameter types are not generated again.
+ * <p>
+ * The declarations of every input are stored with the fingerprint of the input and the resolved super class, so the
+ * graph can be cached on disk and only changed inputs have to be parsed and resolved again. An unchanged input is only
+ * resolved again when a type it may refer to was added or removed. All paths are relative to the source root, using '/'
+ * as separator.
+ */
+public class TypeGraph
+{
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    /**
+     * The version of the cache format, caches of other versions are ignored.
+     */
+    private static final int CACHE_VERSION = 2;
+
+    private final Path sourceRoot;
+
+    private Map<String, Declarations> inputs = new ConcurrentHashMap<>();
+
+    /**
+     * The types of all inputs by qualified name, rebuilt on the first read after an update.
+     */
+    private volatile Map<String, TypeNode> types = null;
+
+    /**
+     * Resolve the super classes of declared inputs, one per thread, created on demand and dropped by
+     * {@link #clearSources()}. A solver caches the sources it parsed and is not thread safe.
+     */
+    private final Map<Thread, Solver> solvers = new ConcurrentHashMap<>();
+
+    /**
+     * @param sourceRoot the root of the sources the super classes are resolved against.
+     */
+    public TypeGraph(final Path sourceRoot)
+    {
+        this.sourceRoot = sourceRoot;
+    }
+
+    /**
+     * Replaces the graph with the one cached in the given file, if it exists and has the current format.
+     */
+    public synchronized void load(final Path cacheFile) throws IOException
+    {
+        if (!Files.exists(cacheFile))
+        {
+            return;
+        }
+
+        try (Reader reader = Files.newBufferedReader(cacheFile, StandardCharsets.UTF_8))
+        {
+            final Cache cached = GSON.fromJson(reader, Cache.class);
+            inputs = cached == null || cached.version != CACHE_VERSION ? new ConcurrentHashMap<>() : new ConcurrentHashMap<>(cached.inputs);
+            types = null;
+        }
+    }
+
+    public synchronized void save(final Path cacheFile) throws IOException
+    {
+        try (Writer writer = Files.newBufferedWriter(cacheFile, StandardCharsets.UTF_8))
+        {
+            GSON.toJson(new Cache(new TreeMap<>(inputs)), writer);
+        }
+    }
+
+    public Set<String> getInputs()
+    {
+        return Collections.unmodifiableSet(inputs.keySet());
+    }
+
+    /**
+     * @return the fingerprint of the input the graph knows, or null if the input is unknown.
+     */
+    public String getFingerprint(final String input)
+    {
+        final Declarations declarations = inputs.get(input);
+        return declarations == null ? null : declarations.fingerprint;
+    }
+
+    /**
+     * @param declarations the new declarations by input, before they are applied.
+     * @return the other inputs whose super class may resolve differently, because a type they may refer to is added or
+     * removed by the new declarations.
+     */
+    public Set<String> getReferencingInputs(final Map<String, Declarations> declarations)
+    {
+        final Set<String> changedNames = new HashSet<>();
+        declarations.forEach((input, current) -> {
+            final Set<String> previousNames = getSimpleNames(inputs.get(input));
+            final Set<String> currentNames = getSimpleNames(current);
+            if (!previousNames.equals(currentNames))
+            {
+                changedNames.addAll(previousNames);
+                changedNames.addAll(currentNames);
+            }
+        });
+
+        if (changedNames.isEmpty())
+        {
+            return Collections.emptySet();
+        }
+
+        final Set<String> referencingInputs = new HashSet<>();
+        inputs.forEach((input, current) -> {
+            if (!declarations.containsKey(input) && current.types.stream().anyMatch(t -> t.references.stream().anyMatch(changedNames::contains)))
+            {
+                referencingInputs.add(input);
+            }
+        });
+
+        return referencingInputs;
+    }
+
+    private static Set<String> getSimpleNames(final Declarations declarations)
+    {
+        if (declarations == null || declarations.types == null)
+        {
+            return Collections.emptySet();
+        }
+
+        return declarations.types.stream().map(t -> t.name.substring(t.name.lastIndexOf('.') + 1)).collect(Collectors.toSet());
+    }
+
+    /**
+     * Replaces the declarations of the given inputs.
+     *
+     * @param declarations the new declarations by input.
+     * @return the inputs that declare a subclass of a type that was added, removed or declared differently, before or
+     * after the update.
+     */
+    public synchronized Set<String> update(final Map<String, Declarations> declarations)
+    {
+        final Map<String, Declarations> previousInputs = new HashMap<>(inputs);
+        final Map<String, TypeNode> previousTypes = getTypes();
+        final Set<String> changedTypes = new HashSet<>();
+
+        declarations.forEach((input, current) -> {
+            final Declarations previous = current.types == null ? inputs.remove(input) : inputs.put(input, current);
+            final List<TypeNode> previousDeclarations = previous == null ? Collections.emptyList() : previous.types;
+            final List<TypeNode> currentDeclarations = current.types == null ? Collections.emptyList() : current.types;
+            if (!previousDeclarations.equals(currentDeclarations))
+            {
+                previousDeclarations.forEach(t -> changedTypes.add(t.name));
+                currentDeclarations.forEach(t -> changedTypes.add(t.name));
+            }
+        });
+
+        if (changedTypes.isEmpty())
+        {
+            return Collections.emptySet();
+        }
+
+        types = null;
+        final Set<String> dependentInputs = getDependentInputs(previousInputs, previousTypes, changedTypes);
+        dependentInputs.addAll(getDependentInputs(inputs, getTypes(), changedTypes));
+        return dependentInputs;
+    }
+
+    private static Set<String> getDependentInputs(final Map<String, Declarations> inputs, final Map<String, TypeNode> index, final Set<String> typeNames)
+    {
+        final Set<String> dependentInputs = new HashSet<>();
+        inputs.forEach((input, declarations) -> {
+            for (final TypeNode type : declarations.types)
+            {
+                if (getAncestors(index, type.name).stream().anyMatch(typeNames::contains))
+                {
+                    dependentInputs.add(input);
+                }
+            }
+        });
+
+        return dependentInputs;
+    }
+
+    public boolean contains(final String qualifiedName)
+    {
+        return getTypes().containsKey(qualifiedName);
+    }
+
+    /**
+     * @return the qualified name of the super class, or null if it is not a type of the graph.
+     */
+    public String getSuperType(final String qualifiedName)
+    {
+        final List<String> ancestors = getAncestors(getTypes(), qualifiedName);
+        return ancestors.isEmpty() ? null : ancestors.get(0);
+    }
+
+    /**
+     * @return the signatures of the methods the generated ancestors of the given type declare and whitelist.
+     */
+    public Set<String> getInheritedMethods(final String qualifiedName, final MethodWhitelist whitelist)
+    {
+        final Set<String> inheritedMethods = new HashSet<>();
+        final Map<String, TypeNode> index = getTypes();
+        for (final String ancestor : getAncestors(index, qualifiedName))
+        {
+            final List<String> validMethodNames = whitelist.getValidMethodNames(ancestor);
+            index.get(ancestor).methods
+              .stream()
+              .filter(m -> validMethodNames.contains("*") || validMethodNames.contains(m.substring(0, m.indexOf('('))))
+              .forEach(inheritedMethods::add);
+        }
+
+        return inheritedMethods;
+    }
+
+    /**
+     * @return the qualified names of the generated super classes of the given type, nearest first.
+     */
+    private static List<String> getAncestors(final Map<String, TypeNode> index, final String qualifiedName)
+    {
+        final List<String> ancestors = new ArrayList<>();
+        TypeNode type = index.get(qualifiedName);
+        while (type != null
+                 && type.resolvedSuperType != null
+                 && index.containsKey(type.resolvedSuperType)
+                 && !type.resolvedSuperType.equals(qualifiedName)
+                 && !ancestors.contains(type.resolvedSuperType))
+        {
+            ancestors.add(type.resolvedSuperType);
+            type = index.get(type.resolvedSuperType);
+        }
+
+        return ancestors;
+    }
+
+    /**
+     * The signature a method is matched with the methods of the ancestors by, its name and its parameter types as written.
+     */
+    public static String getSignature(final MethodDeclaration method)
+    {
+        return method.getParameters()
+                 .stream()
+                 .map(p -> p.getType().asString() + (p.isVarArgs() ? "..." : ""))
+                 .collect(Collectors.joining(",", method.getNameAsString() + "(", ")"));
+    }
+
+    /**
+     * Resolves the super classes of the top level types of a source against the current sources below the source root.
+     *
+     * @param source a source below the source root, parsed on its own.
+     * @return the declarations of the top level types of the source.
+     */
+    public List<TypeNode> declare(final CompilationUnit source)
+    {
+        final String packageName = source.getPackageDeclaration().map(p -> p.getNameAsString()).orElse("");
+        return source.getTypes()
+                 .stream()
+                 .filter(t -> t instanceof ClassOrInterfaceDeclaration)
+                 .map(t -> (ClassOrInterfaceDeclaration) t)
+                 .map(t -> {
+                     final ClassOrInterfaceType superType = t.getExtendedTypes().isEmpty() ? null : t.getExtendedTypes(0);
+                     return new TypeNode(packageName.isEmpty() ? t.getNameAsString() : packageName + "." + t.getNameAsString(),
+                       superType == null ? null : getWrittenName(superType),
+                       superType == null ? Collections.emptyList() : getReferences(source, superType),
+                       superType == null ? null : resolve(source, superType),
+                       t.getMethods()
+                         .stream()
+                         .filter(m -> !m.getModifiers().contains(Modifier.privateModifier()) && !m.getModifiers().contains(Modifier.staticModifier()))
+                         .map(TypeGraph::getSignature)
+                         .collect(Collectors.toList()));
+                 })
+                 .collect(Collectors.toList());
+    }
+
+    /**
+     * Drops the sources the symbol solver parsed, so the next declarations are resolved against the sources as they are then.
+     */
+    public void clearSources()
+    {
+        solvers.clear();
+    }
+
+    /**
+     * @return the qualified name of the given super class, or null if it does not resolve.
+     */
+    private String resolve(final CompilationUnit source, final ClassOrInterfaceType superType)
+    {
+        final Solver solver = solvers.computeIfAbsent(Thread.currentThread(), t -> new Solver(sourceRoot));
+        try
+        {
+            //A single static import shadows the types of the own package, the solver looks at the package first.
+            final String[] parts = getWrittenName(superType).split("\\.", 2);
+            for (final ImportDeclaration importDeclaration : source.getImports())
+            {
+                if (importDeclaration.isStatic() && !importDeclaration.isAsterisk() && importDeclaration.getName().getIdentifier().equals(parts[0]))
+                {
+                    final SymbolReference<ResolvedReferenceTypeDeclaration> imported =
+                      solver.typeSolver.tryToSolveType(importDeclaration.getNameAsString() + (parts.length > 1 ? "." + parts[1] : ""));
+                    if (imported.isSolved())
+                    {
+                        return imported.getCorrespondingDeclaration().getQualifiedName();
+                    }
+                }
+            }
+
+            solver.symbolSolver.inject(source);
+            return superType.resolve().getQualifiedName();
+        }
+        catch (RuntimeException e)
+        {
+            //Unsolved, like a class of a library, so not a generated type either.
+            return null;
+        }
+    }
+
+    /**
+     * @return the name of a type as written, without type arguments.
+     */
+    private static String getWrittenName(final ClassOrInterfaceType type)
+    {
+        return type.getScope().map(s -> getWrittenName(s) + ".").orElse("") + type.getNameAsString();
+    }
+
+    /**
+     * @return the simple names the resolution of a written super class depends on: the parts of its name and of the import
+     * that brings its first part into scope.
+     */
+    private static List<String> getReferences(final CompilationUnit source, final ClassOrInterfaceType superType)
+    {
+        final List<String> parts = Arrays.asList(getWrittenName(superType).split("\\."));
+        final Set<String> references = new TreeSet<>(parts);
+        for (final ImportDeclaration importDeclaration : source.getImports())
+        {
+            if (!importDeclaration.isAsterisk() && importDeclaration.getName().getIdentifier().equals(parts.get(0)))
+            {
+                references.addAll(Arrays.asList(importDeclaration.getNameAsString().split("\\.")));
+            }
+        }
+
+        return new ArrayList<>(references);
+    }
+
+    /**
+     * @return the types by qualified name, indexed again if the graph changed since the last read.
+     */
+    private Map<String, TypeNode> getTypes()
+    {
+        Map<String, TypeNode> index = types;
+        if (index != null)
+        {
+            return index;
+        }
+
+        synchronized (this)
+        {
+            if (types == null)
+            {
+                final Map<String, TypeNode> newIndex = new HashMap<>();
+                inputs.forEach((input, d) -> d.types.forEach(t -> {
+                    t.input = input;
+                    newIndex.put(t.name, t);
+                }));
+                types = newIndex;
+            }
+
+            return types;
+        }
+    }
+
+    /**
+     * The top level types of an input.
+     */
+    public static class Declarations
+    {
+        private String         fingerprint;
+        private List<TypeNode> types;
+
+        /**
+         * @param types the types of the input, or null if the input was removed.
+         */
+        public Declarations(final String fingerprint, final List<TypeNode> types)
+        {
+            this.fingerprint = fingerprint;
+            this.types = types;
+        }
+    }
+
+    /**
+     * A top level type of an input.
+     */
+    public static class TypeNode
+    {
+        private String       name;
+        private String       superType;
+        private List<String> references;
+        private String       resolvedSuperType;
+        private List<String> methods;
+
+        private transient String input;
+
+        public TypeNode(final String name, final String superType, final List<String> references, final String resolvedSuperType, final List<String> methods)
+        {
+            this.name = name;
+            this.superType = superType;
+            this.references = references;
+            this.resolvedSuperType = resolvedSuperType;
+            this.methods = methods;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        @Override
+        public boolean equals(final Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass())
+            {
+                return false;
+            }
+
+            final TypeNode typeNode = (TypeNode) o;
+            return Objects.equals(name, typeNode.name)
+                     && Objects.equals(superType, typeNode.superType)
+                     && Objects.equals(references, typeNode.references)
+                     && Objects.equals(resolvedSuperType, typeNode.resolvedSuperType)
+                     && Objects.equals(methods, typeNode.methods);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(name, superType, references, resolvedSuperType, methods);
+        }
+    }
+
+    /**
+     * The file format of the cache.
+     */
+    private static class Cache
+    {
+        private int                       version;
+        private Map<String, Declarations> inputs;
+
+        private Cache(final Map<String, Declarations> inputs)
+        {
+            this.version = CACHE_VERSION;
+            this.inputs = inputs;
+        }
+    }
+
+    /**
+     * The symbol solver of one thread, over the sources below the source root and the JRE.
+     */
+    private static class Solver
+    {
+        private final CombinedTypeSolver typeSolver;
+        private final JavaSymbolSolver   symbolSolver;
+
+        private Solver(final Path sourceRoot)
+        {
+            typeSolver = new CombinedTypeSolver(new ReflectionTypeSolver(), sourceRoot.getFileSystem() == FileSystems.getDefault()
+                                                                              ? new JavaParserTypeSolver(sourceRoot, Parsers.createConfiguration())
+                                                                              : new ArchiveTypeSolver(sourceRoot));
+            symbolSolver = new JavaSymbolSolver(typeSolver);
+        }
+    }
+}
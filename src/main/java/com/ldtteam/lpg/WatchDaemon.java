@@ -0,0 +1,249 @@
+package com.ldtteam.lpg;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps a warm generator running and regenerates a source tree whenever its inputs or mapping files change.
+ * <p>
+ * Bursts of file events, like an IDE saving several files or a checkout, are coalesced: a run starts once no new event
+ * arrived for the quiet period. Changed inputs are regenerated by the batch generator, which only looks at their
+ * directories. A changed mapping only regenerates the inputs that use a type whose mapping was added, removed or
+ * changed. Events of the generated files themselves are ignored by the batch generator.
+ */
+public class WatchDaemon
+{
+    private final Path                   sourceRoot;
+    private final List<Path>             mappingFiles;
+    private final GeneratorConfiguration configuration;
+    private final BatchGenerator         batchGenerator;
+    private final Map<WatchKey, Path>    directories = new HashMap<>();
+
+    private long         quietPeriodMillis = 50;
+    private MappingStore mappingStore;
+
+    /**
+     * @param configuration  the configuration of the generator of the batch generator.
+     * @param batchGenerator the batch generator that did the initial run.
+     */
+    public WatchDaemon(final Path sourceRoot, final List<Path> mappingFiles, final GeneratorConfiguration configuration, final BatchGenerator batchGenerator)
+    {
+        this.sourceRoot = sourceRoot.toAbsolutePath().normalize();
+        this.mappingFiles = mappingFiles.stream().map(p -> p.toAbsolutePath().normalize()).collect(Collectors.toList());
+        this.configuration = new GeneratorConfiguration(configuration);
+        this.batchGenerator = batchGenerator;
+        this.mappingStore = configuration.getMapping().getStore();
+    }
+
+    public void setQuietPeriod(final long quietPeriodMillis)
+    {
+        this.quietPeriodMillis = quietPeriodMillis;
+    }
+
+    /**
+     * Watches until the thread is interrupted.
+     */
+    public void run() throws IOException, InterruptedException
+    {
+        try (WatchService watchService = sourceRoot.getFileSystem().newWatchService())
+        {
+            registerTree(watchService, sourceRoot, null);
+            for (final Path mappingDirectory : mappingFiles.stream().map(Path::getParent).collect(Collectors.toSet()))
+            {
+                register(watchService, mappingDirectory);
+            }
+
+            System.out.println("Watching " + sourceRoot + " for changes.");
+            while (!Thread.currentThread().isInterrupted())
+            {
+                final Set<Path> changedFiles = new HashSet<>();
+                boolean overflow = pollEvents(watchService, watchService.take(), changedFiles);
+
+                WatchKey key;
+                while ((key = watchService.poll(quietPeriodMillis, TimeUnit.MILLISECONDS)) != null)
+                {
+                    overflow |= pollEvents(watchService, key, changedFiles);
+                }
+
+                regenerate(changedFiles, overflow);
+            }
+        }
+        catch (ClosedWatchServiceException e)
+        {
+            //Closed from the outside, stop watching.
+        }
+    }
+
+    /**
+     * Collects the changed files of a signalled key and starts watching new directories.
+     *
+     * @return true if events were lost.
+     */
+    private boolean pollEvents(final WatchService watchService, final WatchKey key, final Set<Path> changedFiles) throws IOException
+    {
+        final Path directory = directories.get(key);
+        boolean overflow = false;
+        for (final WatchEvent<?> event : key.pollEvents())
+        {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || directory == null)
+            {
+                overflow = true;
+                continue;
+            }
+
+            final Path file = directory.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && file.startsWith(sourceRoot) && Files.isDirectory(file))
+            {
+                registerTree(watchService, file, changedFiles);
+            }
+            changedFiles.add(file);
+        }
+
+        if (!key.reset())
+        {
+            directories.remove(key);
+        }
+
+        return overflow;
+    }
+
+    /**
+     * Watches a directory and all directories below it.
+     *
+     * @param existingFiles collects the files that already exist in the directories, if not null.
+     */
+    private void registerTree(final WatchService watchService, final Path root, final Set<Path> existingFiles) throws IOException
+    {
+        try (Stream<Path> files = Files.walk(root))
+        {
+            for (final Path file : (Iterable<Path>) files::iterator)
+            {
+                if (Files.isDirectory(file))
+                {
+                    register(watchService, file);
+                }
+                else if (existingFiles != null)
+                {
+                    existingFiles.add(file);
+                }
+            }
+        }
+    }
+
+    private void register(final WatchService watchService, final Path directory) throws IOException
+    {
+        directories.put(directory.register(watchService,
+          StandardWatchEventKinds.ENTRY_CREATE,
+          StandardWatchEventKinds.ENTRY_MODIFY,
+          StandardWatchEventKinds.ENTRY_DELETE), directory);
+    }
+
+    private void regenerate(final Set<Path> changedFiles, final boolean overflow)
+    {
+        final long start = System.nanoTime();
+        final int generatedInputs = batchGenerator.getGeneratedInputs();
+        final int prunedOutputs = batchGenerator.getPrunedOutputs();
+
+        try
+        {
+            if (changedFiles.stream().anyMatch(mappingFiles::contains))
+            {
+                reloadMapping();
+            }
+
+            final int failures = overflow ? batchGenerator.generate() : batchGenerator.generate(changedFiles);
+            final int regenerated = batchGenerator.getGeneratedInputs() - generatedInputs;
+            final int pruned = batchGenerator.getPrunedOutputs() - prunedOutputs;
+            if (regenerated > 0 || pruned > 0 || failures > 0)
+            {
+                System.out.println("Regenerated " + regenerated + " input(s), pruned " + pruned + " stale file(s) in "
+                                     + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms"
+                                     + (failures > 0 ? ", " + failures + " input(s) failed to generate." : "."));
+            }
+        }
+        catch (IOException | RuntimeException e)
+        {
+            System.err.println("Failed to regenerate: " + e);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Loads the changed mapping and invalidates the inputs that use a type whose mapping changed.
+     * A mapping that fails to load, for example because it is saved halfway, keeps the previous mapping in place.
+     */
+    private void reloadMapping() throws IOException
+    {
+        final MappingStore store;
+        try
+        {
+            store = MappingStore.load(mappingFiles);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            System.err.println("Failed to load the mapping, keeping the previous one: " + e.getMessage());
+            return;
+        }
+
+        final Set<String> changedTypes = getChangedTypes(mappingStore, store);
+        mappingStore = store;
+        configuration.setMapping(new Mapping(store));
+        batchGenerator.setGenerator(new Generator(configuration));
+        batchGenerator.setMappingFingerprint(GenerationManifest.fingerprint(mappingFiles));
+
+        final GenerationManifest lastManifest = batchGenerator.getLastManifest();
+        if (lastManifest == null || changedTypes.isEmpty())
+        {
+            return;
+        }
+
+        batchGenerator.invalidate(lastManifest.getInputs()
+                                    .entrySet()
+                                    .stream()
+                                    .filter(e -> e.getValue().getTypes() == null || e.getValue().getTypes().stream().anyMatch(changedTypes::contains))
+                                    .map(Map.Entry::getKey)
+                                    .collect(Collectors.toList()));
+    }
+
+    /**
+     * @return the simple names of the outermost types of the sources that were added, removed or mapped differently.
+     */
+    private static Set<String> getChangedTypes(final MappingStore previous, final MappingStore current)
+    {
+        final Set<String> changedTypes = new HashSet<>();
+        previous.forEach((source, target) -> {
+            if (!target.equals(current.get(source)))
+            {
+                changedTypes.add(getSimpleName(source));
+            }
+        });
+        current.forEach((source, target) -> {
+            if (previous.get(source) == null)
+            {
+                changedTypes.add(getSimpleName(source));
+            }
+        });
+
+        return changedTypes;
+    }
+
+    private static String getSimpleName(final String source)
+    {
+        final int typeArguments = source.indexOf('<');
+        final String name = typeArguments < 0 ? source : source.substring(0, typeArguments);
+        return name.substring(name.lastIndexOf('.') + 1).trim();
+    }
+}
@@ -0,0 +1,162 @@
+package com.ldtteam.lpg;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.Assert.*;
+
+public class BatchGeneratorTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path sourceRoot;
+    private Path manifestFile;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        sourceRoot = folder.newFolder("src").toPath();
+        manifestFile = folder.getRoot().toPath().resolve("manifest.json");
+        write("door/Door.java", "package door; public class Door { public boolean isOpen(int pos) { return false; } public void onUse(int pos) {} }");
+        write("lamp/Lamp.java", "package lamp; public class Lamp { public int getLight(int pos) { return 0; } }");
+    }
+
+    @Test
+    public void skipsUnchangedInputs() throws IOException, InterruptedException
+    {
+        final BatchGenerator first = createBatchGenerator();
+        assertEquals(0, first.generate());
+        assertEquals(2, first.getGeneratedInputs());
+        assertTrue(Files.exists(sourceRoot.resolve("door/logic/builder/contexts/IsOpenContext.java")));
+
+        final BatchGenerator second = createBatchGenerator();
+        assertEquals(0, second.generate());
+        assertEquals(0, second.getGeneratedInputs());
+        assertEquals(2, second.getSkippedInputs());
+
+        write("lamp/Lamp.java", "package lamp; public class Lamp { public int getLight(int pos, int side) { return 0; } }");
+        final BatchGenerator third = createBatchGenerator();
+        assertEquals(0, third.generate());
+        assertEquals(1, third.getGeneratedInputs());
+        assertEquals(1, third.getSkippedInputs());
+        assertTrue(read("lamp/logic/builder/contexts/GetLightContext.java").contains("int side"));
+    }
+
+    @Test
+    public void regeneratesMissingOutputs() throws IOException, InterruptedException
+    {
+        createBatchGenerator().generate();
+        Files.delete(sourceRoot.resolve("lamp/logic/builder/AbstractLampBuilder.java"));
+
+        final BatchGenerator second = createBatchGenerator();
+        second.generate();
+        assertEquals(1, second.getGeneratedInputs());
+        assertTrue(Files.exists(sourceRoot.resolve("lamp/logic/builder/AbstractLampBuilder.java")));
+    }
+
+    @Test
+    public void regeneratesOnChangedSettings() throws IOException, InterruptedException
+    {
+        createBatchGenerator().generate();
+
+        final BatchGenerator second = createBatchGenerator();
+        second.setMappingFingerprint("other");
+        second.generate();
+        assertEquals(2, second.getGeneratedInputs());
+    }
+
+    @Test
+    public void prunesStaleOutputs() throws IOException, InterruptedException
+    {
+        createBatchGenerator().generate();
+
+        write("door/Door.java", "package door; public class Door { public boolean isOpen(int pos) { return false; } }");
+        final BatchGenerator second = createBatchGenerator();
+        second.generate();
+        assertEquals(1, second.getPrunedOutputs());
+        assertFalse(Files.exists(sourceRoot.resolve("door/logic/builder/contexts/OnUseContext.java")));
+        assertTrue(Files.exists(sourceRoot.resolve("door/logic/builder/contexts/IsOpenContext.java")));
+
+        Files.delete(sourceRoot.resolve("lamp/Lamp.java"));
+        final BatchGenerator third = createBatchGenerator();
+        third.generate();
+        assertFalse(Files.exists(sourceRoot.resolve("lamp/ILamp.java")));
+        assertFalse(Files.exists(sourceRoot.resolve("lamp/logic/builder/AbstractLampBuilder.java")));
+        assertFalse(Files.exists(sourceRoot.resolve("lamp/logic/builder/contexts/GetLightContext.java")));
+        assertFalse(GenerationManifest.load(manifestFile).getInput("lamp/Lamp.java").isPresent());
+    }
+
+    @Test
+    public void keepsOutputsOfExcludedInputs() throws IOException, InterruptedException
+    {
+        createBatchGenerator().generate();
+
+        final BatchGenerator second = createBatchGenerator();
+        second.addExclude("lamp/**");
+        second.generate();
+        assertEquals(0, second.getPrunedOutputs());
+        assertTrue(Files.exists(sourceRoot.resolve("lamp/logic/builder/AbstractLampBuilder.java")));
+        assertTrue(GenerationManifest.load(manifestFile).getInput("lamp/Lamp.java").isPresent());
+    }
+
+    @Test
+    public void keepsOverloadGroupsWithNewOverloads() throws IOException, InterruptedException, URISyntaxException
+    {
+        copyFixture("overloads/Base.java", "net/overloads/Base.java");
+        copyFixture("overloads/Sub.java", "net/overloads/Sub.java");
+        final BatchGenerator batchGenerator = createBatchGenerator(new TypeGraph(sourceRoot));
+        batchGenerator.addInclude("net/**");
+        batchGenerator.generate();
+
+        final String builder = read("net/overloads/logic/builder/AbstractSubBuilder.java");
+        assertTrue(builder.contains("public C CanUse("));
+        assertTrue(builder.contains("public C CanUseWithSideAsint("));
+        assertFalse(builder.contains("GetName"));
+        assertTrue(read("net/overloads/logic/builder/contexts/CanUseContext.java").contains("public CanUseContext(int pos) {"));
+        assertTrue(Files.exists(sourceRoot.resolve("net/overloads/logic/builder/contexts/CanUseWithSideAsintContext.java")));
+    }
+
+    private BatchGenerator createBatchGenerator()
+    {
+        return createBatchGenerator(null);
+    }
+
+    private BatchGenerator createBatchGenerator(final TypeGraph typeGraph)
+    {
+        final GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setTypeGraph(typeGraph);
+        final BatchGenerator batchGenerator = new BatchGenerator(sourceRoot, new Generator(configuration));
+        batchGenerator.setManifestFile(manifestFile);
+        batchGenerator.setParallelism(2);
+        return batchGenerator;
+    }
+
+    private void write(final String file, final String content) throws IOException
+    {
+        final Path path = sourceRoot.resolve(file);
+        Files.createDirectories(path.getParent());
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void copyFixture(final String fixture, final String file) throws IOException, URISyntaxException
+    {
+        final Path path = sourceRoot.resolve(file);
+        Files.createDirectories(path.getParent());
+        Files.copy(Paths.get(getClass().getResource("/fixtures/" + fixture).toURI()), path);
+    }
+
+    private String read(final String file) throws IOException
+    {
+        return new String(Files.readAllBytes(sourceRoot.resolve(file)), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,93 @@
+package com.ldtteam.lpg;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class FileSystemOutputSinkTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void writesNewFiles() throws IOException
+    {
+        final FileSystemOutputSink sink = new FileSystemOutputSink();
+        final Path target = folder.getRoot().toPath().resolve("a/b/Test.java");
+
+        assertTrue(sink.write(target, "class Test {}"));
+        assertEquals("class Test {}", new String(Files.readAllBytes(target), StandardCharsets.UTF_8));
+        assertEquals(1, sink.getWrittenFiles());
+        assertEquals(13, sink.getWrittenBytes());
+    }
+
+    @Test
+    public void leavesUnchangedFilesAlone() throws IOException
+    {
+        final FileSystemOutputSink sink = new FileSystemOutputSink();
+        final Path target = folder.getRoot().toPath().resolve("Test.java");
+        sink.write(target, "class Test { String s = \"\u00e4\u20ac\"; }");
+
+        final FileTime modified = FileTime.fromMillis(1000000000000L);
+        Files.setLastModifiedTime(target, modified);
+
+        assertFalse(sink.write(target, "class Test { String s = \"\u00e4\u20ac\"; }"));
+        assertEquals(modified, Files.getLastModifiedTime(target));
+        assertEquals(1, sink.getWrittenFiles());
+        assertEquals(1, sink.getUnchangedFiles());
+    }
+
+    @Test
+    public void rewritesChangedFiles() throws IOException
+    {
+        final FileSystemOutputSink sink = new FileSystemOutputSink();
+        final Path target = folder.getRoot().toPath().resolve("Test.java");
+        sink.write(target, "class Test {}");
+
+        //Same length, different content.
+        assertTrue(sink.write(target, "class Tost {}"));
+        assertEquals("class Tost {}", new String(Files.readAllBytes(target), StandardCharsets.UTF_8));
+
+        assertTrue(sink.write(target, "class Test { int i; }"));
+        assertTrue(sink.write(target, "class T {}"));
+        assertEquals("class T {}", new String(Files.readAllBytes(target), StandardCharsets.UTF_8));
+        assertEquals(4, sink.getWrittenFiles());
+        assertEquals(0, sink.getUnchangedFiles());
+    }
+
+    @Test
+    public void leavesNoTemporaryFiles() throws IOException
+    {
+        final FileSystemOutputSink sink = new FileSystemOutputSink();
+        final Path target = folder.getRoot().toPath().resolve("Test.java");
+        sink.write(target, "class Test {}");
+        sink.write(target, "class Test { int i; }");
+
+        try (Stream<Path> files = Files.list(folder.getRoot().toPath()))
+        {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void deletesFiles() throws IOException
+    {
+        final FileSystemOutputSink sink = new FileSystemOutputSink();
+        final Path target = folder.getRoot().toPath().resolve("Test.java");
+        sink.write(target, "class Test {}");
+
+        sink.delete(target);
+        sink.delete(target);
+        assertFalse(Files.exists(target));
+        assertEquals(1, sink.getDeletedFiles());
+    }
+}
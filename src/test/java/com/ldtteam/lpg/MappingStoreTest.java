@@ -0,0 +1,93 @@
+package com.ldtteam.lpg;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class MappingStoreTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void looksUpSimpleAndQualifiedNames()
+    {
+        final Map<String, String> mappings = new LinkedHashMap<>();
+        mappings.put("Block", "IBlock");
+        mappings.put("net.minecraft.util.NonNullList<net.minecraft.item.ItemStack>", "java.util.List<IItemStack>");
+        final MappingStore store = MappingStore.of(mappings);
+
+        assertEquals("IBlock", store.get("Block"));
+        assertEquals("java.util.List<IItemStack>", store.get("net.minecraft.util.NonNullList<net.minecraft.item.ItemStack>"));
+        assertNull(store.get("Item"));
+        assertTrue(store.containsSimpleName("Block"));
+        assertTrue(store.containsSimpleName("NonNullList"));
+        assertTrue(store.hasQualifiedNames());
+        assertEquals(mappings, store.toMap());
+    }
+
+    @Test
+    public void binaryFormRoundTrips() throws IOException
+    {
+        final Map<String, String> mappings = new LinkedHashMap<>();
+        final Random random = new Random(42);
+        for (int i = 0; i < 5000; i++)
+        {
+            mappings.put("net.minecraft.p" + random.nextInt(50) + ".Type" + i, "com.ldtteam.api.p" + random.nextInt(50) + ".IType" + i);
+        }
+        mappings.put("Entity\u00e4", "IEntity\u20ac");
+
+        final MappingStore store = MappingStore.of(mappings);
+        final Path file = folder.getRoot().toPath().resolve("mappings.bin");
+        store.write(file);
+
+        final MappingStore loaded = MappingStore.load(Collections.singletonList(file));
+        assertEquals(mappings, loaded.toMap());
+        assertEquals(store.size(), loaded.size());
+        assertEquals(store.hasQualifiedNames(), loaded.hasQualifiedNames());
+        mappings.forEach((source, target) -> assertEquals(target, loaded.get(source)));
+        assertNull(loaded.get("net.minecraft.Missing"));
+        assertTrue(loaded.containsSimpleName("Type42"));
+    }
+
+    @Test
+    public void laterFilesOverrideEarlierOnes() throws IOException
+    {
+        final Path first = folder.getRoot().toPath().resolve("first.json");
+        final Path second = folder.getRoot().toPath().resolve("second.json");
+        Files.write(first, "{\"Block\": \"IBlock\", \"Item\": \"IItem\"}".getBytes(StandardCharsets.UTF_8));
+        Files.write(second, "{\"Item\": \"IItemStack\", \"World\": \"IDimension\"}".getBytes(StandardCharsets.UTF_8));
+
+        final MappingStore store = MappingStore.load(Arrays.asList(first, second));
+        assertEquals("IBlock", store.get("Block"));
+        assertEquals("IItemStack", store.get("Item"));
+        assertEquals("IDimension", store.get("World"));
+
+        final MappingStore reversed = MappingStore.load(Arrays.asList(second, first));
+        assertEquals("IItem", reversed.get("Item"));
+    }
+
+    @Test
+    public void mergesBinaryAndJsonFiles() throws IOException
+    {
+        final Path binary = folder.getRoot().toPath().resolve("base.bin");
+        final Path json = folder.getRoot().toPath().resolve("override.json");
+        MappingStore.of(Collections.singletonMap("Block", "IBlock")).write(binary);
+        Files.write(json, "{\"Block\": \"IBlockState\"}".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("IBlockState", MappingStore.load(Arrays.asList(binary, json)).get("Block"));
+        assertEquals("IBlock", MappingStore.load(Arrays.asList(json, binary)).get("Block"));
+    }
+}
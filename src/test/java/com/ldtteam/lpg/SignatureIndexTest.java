@@ -0,0 +1,161 @@
+package com.ldtteam.lpg;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.type.Type;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares the index with the pairwise overload search it replaced.
+ */
+public class SignatureIndexTest
+{
+    private static final String[] NAMES = {"pos", "world", "state", "entity"};
+    private static final String[] TYPES = {"int", "Block", "World", "List<Block>", "String"};
+
+    private final Mapping mapping = new Mapping(Collections.singletonMap("Block", "IBlock"));
+
+    @Test
+    public void namesOverloadsLikeThePairwiseSearch()
+    {
+        final Random random = new Random(7);
+        for (int run = 0; run < 300; run++)
+        {
+            final List<MethodDeclaration> methods = createOverloads(random, 1 + random.nextInt(30));
+            final SignatureIndex index = new SignatureIndex(methods, mapping::processTypeForMapping);
+
+            final List<MethodDeclaration> sorted = new ArrayList<>(methods);
+            sorted.sort(index.comparator());
+            final List<MethodDeclaration> expectedSorted = new ArrayList<>(methods);
+            expectedSorted.sort(this::compare);
+            assertEquals(expectedSorted, sorted);
+
+            final MethodDeclaration primary = sorted.get(0);
+            final List<MethodDeclaration> overloads = sorted.subList(1, sorted.size());
+            assertEquals(getOverloadData(primary, overloads), index.getOverloadData(primary, overloads));
+        }
+    }
+
+    @Test
+    public void namesOverloadsAfterTheClosestEarlierMethod()
+    {
+        final CompilationUnit unit = Parsers.parse(("class Test { void use(int pos); void use(int pos, Block state); void use(int pos, World world, Block state); }")
+                                                     .getBytes(StandardCharsets.UTF_8), false).getResult().get();
+        final List<MethodDeclaration> methods = unit.findAll(MethodDeclaration.class);
+        final SignatureIndex index = new SignatureIndex(methods, mapping::processTypeForMapping);
+
+        final List<List<String>> overloadData = index.getOverloadData(methods.get(0), methods.subList(1, 3));
+        assertEquals(Collections.singletonList("stateAsIBlock"), overloadData.get(0));
+        assertEquals(Arrays.asList("WorldAsWorld", "stateAsIBlock"), overloadData.get(1));
+    }
+
+    private List<MethodDeclaration> createOverloads(final Random random, final int count)
+    {
+        final StringBuilder source = new StringBuilder("import java.util.List; class Test {");
+        for (int i = 0; i < count; i++)
+        {
+            source.append(" void use(");
+            final int parameters = random.nextInt(4);
+            for (int j = 0; j < parameters; j++)
+            {
+                source.append(j == 0 ? "" : ", ").append(TYPES[random.nextInt(TYPES.length)]).append(' ').append(NAMES[random.nextInt(NAMES.length)]).append(j);
+            }
+            source.append(");");
+        }
+        source.append(" }");
+
+        return Parsers.parse(source.toString().getBytes(StandardCharsets.UTF_8), false).getResult().get().findAll(MethodDeclaration.class);
+    }
+
+    /**
+     * The original ordering, including the comparison of a type with the other parameter's name.
+     */
+    private int compare(final MethodDeclaration o1, final MethodDeclaration o2)
+    {
+        final int sortByName = o1.getNameAsString().compareTo(o2.getNameAsString());
+        if (sortByName != 0)
+            return sortByName;
+
+        final int sortByParameterCount = o1.getParameters().size() - o2.getParameters().size();
+        if (sortByParameterCount != 0)
+            return sortByParameterCount;
+
+        for (int i = 0; i < o1.getParameters().size(); i++)
+        {
+            final Parameter p1 = processMethodParameter(o1.getParameter(i));
+            final Parameter p2 = processMethodParameter(o2.getParameter(i));
+
+            final int sortByParameterName = p1.getNameAsString().compareTo(p2.getNameAsString());
+            if (sortByParameterName != 0)
+                return sortByParameterName;
+
+            final int sortByParameterType = p1.getTypeAsString().compareTo(p2.getNameAsString());
+            if (sortByParameterType != 0)
+                return sortByParameterType;
+        }
+
+        return 0;
+    }
+
+    /**
+     * The original search, comparing every overload with the primary method and all overloads before it.
+     */
+    private List<List<String>> getOverloadData(final MethodDeclaration primary, final List<MethodDeclaration> overloads)
+    {
+        final List<List<String>> result = new ArrayList<>();
+        for (int i = 0; i < overloads.size(); i++)
+        {
+            List<String> overloadData = getOverloadData(primary, overloads.get(i));
+            for (int j = 0; j < i; j++)
+            {
+                final List<String> overloadDataCandidate = getOverloadData(overloads.get(j), overloads.get(i));
+                if (overloadDataCandidate.size() <= overloadData.size())
+                {
+                    overloadData = overloadDataCandidate;
+                }
+            }
+            result.add(overloadData);
+        }
+
+        return result;
+    }
+
+    private List<String> getOverloadData(final MethodDeclaration primary, final MethodDeclaration overload)
+    {
+        final List<String> overloadData = new ArrayList<>();
+        for (int i = 0; i < overload.getParameters().size(); i++)
+        {
+            final Parameter p2 = processMethodParameter(overload.getParameter(i));
+            if (i < primary.getParameters().size())
+            {
+                final Parameter p1 = processMethodParameter(primary.getParameter(i));
+                if (!p1.getNameAsString().equals(p2.getNameAsString()) || !p1.getTypeAsString().equals(p2.getTypeAsString()))
+                {
+                    overloadData.add(Generator.Capitalize(p2.getNameAsString()) + "As" + Generator.Capitalize(Generator.getCleanedTypeName(p2.getType())));
+                }
+            }
+            else
+            {
+                overloadData.add(p2.getNameAsString() + "As" + Generator.getCleanedTypeName(p2.getType()));
+            }
+        }
+
+        return overloadData;
+    }
+
+    private Parameter processMethodParameter(final Parameter parameter)
+    {
+        final Type type = mapping.processTypeForMapping(parameter.getType());
+        return new Parameter(type, parameter.getName());
+    }
+}
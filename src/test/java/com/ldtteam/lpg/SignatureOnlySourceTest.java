@@ -0,0 +1,127 @@
+package com.ldtteam.lpg;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.InitializerDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class SignatureOnlySourceTest
+{
+    private static final String SOURCE = "package a;\n"
+                                           + "\n"
+                                           + "import java.util.function.Supplier;\n"
+                                           + "\n"
+                                           + "@Deprecated\n"
+                                           + "public class Test<T extends Comparable<T>> extends Base implements Supplier<T>\n"
+                                           + "{\n"
+                                           + "    private static final int[] VALUES = {1, 2, 3};\n"
+                                           + "    private final Runnable runnable = new Runnable() { public void run() { System.out.println(\"}\"); } };\n"
+                                           + "    private final Supplier<String> lambda = () -> { return \"{\"; };\n"
+                                           + "\n"
+                                           + "    static\n"
+                                           + "    {\n"
+                                           + "        System.out.println('{');\n"
+                                           + "    }\n"
+                                           + "\n"
+                                           + "    {\n"
+                                           + "        // }\n"
+                                           + "    }\n"
+                                           + "\n"
+                                           + "    public Test(final T value)\n"
+                                           + "    {\n"
+                                           + "        super(() -> { return value; });\n"
+                                           + "    }\n"
+                                           + "\n"
+                                           + "    @SuppressWarnings(value = {\"unchecked\", \"rawtypes\"})\n"
+                                           + "    public <R> R map(final java.util.function.Function<T, R> function, final int... values) throws Exception\n"
+                                           + "    {\n"
+                                           + "        /* { */\n"
+                                           + "        if (values.length > 0) { return function.apply(get()); }\n"
+                                           + "        return null;\n"
+                                           + "    }\n"
+                                           + "\n"
+                                           + "    public abstract void onUpdate(String name);\n"
+                                           + "\n"
+                                           + "    @Override\n"
+                                           + "    public T get()\n"
+                                           + "    {\n"
+                                           + "        return null;\n"
+                                           + "    }\n"
+                                           + "\n"
+                                           + "    public enum Kind\n"
+                                           + "    {\n"
+                                           + "        A, B;\n"
+                                           + "\n"
+                                           + "        public int value() { return 0; }\n"
+                                           + "    }\n"
+                                           + "\n"
+                                           + "    public interface Listener\n"
+                                           + "    {\n"
+                                           + "        default void listen(String event) { System.out.println(event); }\n"
+                                           + "    }\n"
+                                           + "}\n";
+
+    @Test
+    public void emptiesBodies()
+    {
+        final String stripped = SignatureOnlySource.strip(SOURCE);
+
+        assertFalse(stripped.contains("System.out.println('{')"));
+        assertFalse(stripped.contains("return function.apply"));
+        assertFalse(stripped.contains("return null"));
+        assertFalse(stripped.contains("return 0"));
+        assertFalse(stripped.contains("super("));
+    }
+
+    @Test
+    public void keepsInitializersAndDefaultMethods()
+    {
+        final String stripped = SignatureOnlySource.strip(SOURCE);
+
+        assertTrue(stripped.contains("VALUES = {1, 2, 3};"));
+        assertTrue(stripped.contains("System.out.println(\"}\");"));
+        assertTrue(stripped.contains("() -> { return \"{\"; };"));
+        assertTrue(stripped.contains("value = {\"unchecked\", \"rawtypes\"}"));
+        assertTrue(stripped.contains("default void listen(String event) { System.out.println(event); }"));
+    }
+
+    @Test
+    public void keepsAllDeclarations()
+    {
+        final CompilationUnit full = Parsers.parse(SOURCE.getBytes(StandardCharsets.UTF_8), false).getResult().get();
+        final CompilationUnit stripped = Parsers.parse(SOURCE.getBytes(StandardCharsets.UTF_8), true).getResult().get();
+
+        assertEquals(getDeclarations(full), getDeclarations(stripped));
+        assertEquals(full.getImports(), stripped.getImports());
+        assertEquals(full.getPackageDeclaration(), stripped.getPackageDeclaration());
+        assertTrue(stripped.findAll(InitializerDeclaration.class).stream().allMatch(i -> i.getBody().isEmpty()));
+    }
+
+    @Test
+    public void emptiesEnumConstantBodies()
+    {
+        assertEquals("enum Kind { A {}, B; int value() {} }", SignatureOnlySource.strip("enum Kind { A { int value() { return 1; } }, B; int value() { return 0; } }"));
+    }
+
+    @Test
+    public void leavesUnclosedSourcesToTheParser()
+    {
+        assertEquals("class Test { void run() {}", SignatureOnlySource.strip("class Test { void run() { if (true) {"));
+    }
+
+    private static List<String> getDeclarations(final CompilationUnit unit)
+    {
+        final List<String> declarations = unit.findAll(CallableDeclaration.class).stream().map(c -> c.getDeclarationAsString(true, true, true)).collect(Collectors.toList());
+        unit.findAll(FieldDeclaration.class).forEach(f -> declarations.add(f.toString()));
+        unit.findAll(TypeDeclaration.class).forEach(t -> declarations.add(t.getNameAsString() + " " + t.getMembers().size()));
+        return declarations;
+    }
+}
@@ -0,0 +1,14 @@
+package net.overloads;
+
+public class Base
+{
+    public boolean canUse(int pos)
+    {
+        return false;
+    }
+
+    public String getName(int pos)
+    {
+        return "base";
+    }
+}
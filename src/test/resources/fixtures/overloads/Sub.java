@@ -0,0 +1,21 @@
+package net.overloads;
+
+public class Sub extends Base
+{
+    @Override
+    public boolean canUse(int pos)
+    {
+        return true;
+    }
+
+    public boolean canUse(int pos, int side)
+    {
+        return side > 0;
+    }
+
+    @Override
+    public String getName(int pos)
+    {
+        return "sub";
+    }
+}